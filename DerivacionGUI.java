@@ -1,3 +1,13 @@
+import busqueda.MetricasBusqueda;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import gramatica.Derivador;
+import gramatica.GramaticaCompilada;
+import gramatica.GrammarParser;
+import gramatica.Regla;
+import gramatica.Utilidades;
+
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
@@ -8,277 +18,10 @@ import java.nio.file.Files;
 import java.util.*;
 import java.util.List;
 
-/* ===========================
-   MODELO (tu motor existente)
-   =========================== */
-
-// ---------------------------
-// Clase Nodo
-// ---------------------------
-class Nodo {
-    String estadoStr;
-    Nodo padre;
-    Integer noRegla;
-    List<Nodo> hijos;
-
-    public Nodo(String estadoStr, Nodo padre, Integer noRegla) {
-        this.estadoStr = estadoStr;
-        this.padre = padre;
-        this.noRegla = noRegla;
-        this.hijos = new ArrayList<>();
-    }
-}
-
-// ---------------------------
-// Clase Frontera
-// ---------------------------
-class Frontera {
-    String metodo;            // "izquierda" o "derecha"
-    List<Nodo> nodosFrontera; // frontera (LIFO o FIFO segun método elegido aquí como DFS-like)
-
-    public Frontera(String metodo) {
-        this.metodo = metodo;
-        this.nodosFrontera = new ArrayList<>();
-    }
-
-    public void agregar(List<Nodo> nodos) {
-        // Añade al inicio para simular un recorrido en profundidad (está bien para este ejercicio)
-        nodosFrontera.addAll(0, nodos);
-    }
-
-    public Nodo extraer() {
-        if (nodosFrontera.isEmpty()) return null;
-        if (metodo.equals("izquierda")) {
-            return nodosFrontera.remove(0);
-        } else {
-            return nodosFrontera.remove(nodosFrontera.size() - 1);
-        }
-    }
-
-    public boolean esVacia() {
-        return nodosFrontera.isEmpty();
-    }
-}
-
-// ---------------------------
-// Clase Regla
-// ---------------------------
-class Regla {
-    int noRegla;
-    String produccion; // cuerpo/derecha
-
-    public Regla(int noRegla, String produccion) {
-        this.noRegla = noRegla;
-        this.produccion = produccion;
-    }
-}
-
-// ---------------------------
-// Aux: Par(posición, cabeza)
-// ---------------------------
-class Par {
-    int posicion;
-    String cabeza;
-
-    public Par(int posicion, String cabeza) {
-        this.posicion = posicion;
-        this.cabeza = cabeza;
-    }
-}
-
-// ---------------------------
-// GeneraEstados
-// ---------------------------
-class GeneraEstados {
-    Map<String, List<Regla>> reglas;
-
-    public GeneraEstados(Map<String, List<Regla>> reglasProduccion) {
-        this.reglas = reglasProduccion;
-    }
-
-    public List<Nodo> expandir(Nodo padre, String metodo) {
-        String cadena = padre.estadoStr;
-        List<Par> ocurrencias = new ArrayList<>();
-
-        // Buscar todas las ocurrencias de TODAS las cabezas (no terminales)
-        for (String cabeza : reglas.keySet()) {
-            int start = 0;
-            while (true) {
-                int i = cadena.indexOf(cabeza, start);
-                if (i == -1) break;
-                ocurrencias.add(new Par(i, cabeza));
-                start = i + 1;
-            }
-        }
-
-        // Si no hay más no terminales que reemplazar
-        if (ocurrencias.isEmpty()) return new ArrayList<>();
-
-        // Elegir ocurrencia por izquierda o derecha
-        Par elegida;
-        if (metodo.equals("izquierda")) {
-            elegida = Collections.min(ocurrencias, Comparator.comparingInt(p -> p.posicion));
-        } else {
-            elegida = Collections.max(ocurrencias, Comparator.comparingInt(p -> p.posicion));
-        }
-
-        int i = elegida.posicion;
-        String cabeza = elegida.cabeza;
-
-        // Expandir con todas las reglas para esa cabeza
-        List<Nodo> hijos = new ArrayList<>();
-        for (Regla regla : reglas.get(cabeza)) {
-            String produccion = "ε".equals(regla.produccion) ? "" : regla.produccion; // soporta epsilon
-            String nueva = cadena.substring(0, i) + produccion + cadena.substring(i + cabeza.length());
-            Nodo hijo = new Nodo(nueva, padre, regla.noRegla);
-            hijos.add(hijo);
-        }
-
-        padre.hijos = hijos;
-        return hijos;
-    }
-}
-
-// ---------------------------
-// Buscador
-// ---------------------------
-class Buscador {
-    String metodo;
-    Frontera frontera;
-    String estadoFinal;
-    Nodo raiz;
-    int MAX_N = 25;
-    Set<String> visitados;
-    List<Nodo> soluciones;
-
-    public Buscador(String metodo, String estadoInicial, String estadoFinal) {
-        this.metodo = metodo;
-        this.frontera = new Frontera(metodo);
-        this.estadoFinal = estadoFinal;
-        this.raiz = new Nodo(estadoInicial, null, null);
-        this.visitados = new HashSet<>();
-        this.soluciones = new ArrayList<>();
-    }
-
-    public List<Nodo> buscar(GeneraEstados generador) {
-        frontera.agregar(Arrays.asList(raiz));
-
-        while (!frontera.esVacia()) {
-            Nodo nodo = frontera.extraer();
-            if (nodo == null) break;
-
-            if (nodo.estadoStr.equals(estadoFinal)) {
-                soluciones.add(nodo);
-                // No retornamos de inmediato, seguimos buscando para detectar ambigüedad
-            }
-
-            if (visitados.contains(nodo.estadoStr)) continue;
-            visitados.add(nodo.estadoStr);
-
-            if (profundidad(nodo) > MAX_N) continue;
-
-            List<Nodo> hijos = generador.expandir(nodo, metodo);
-            if (!hijos.isEmpty()) {
-                frontera.agregar(hijos);
-                nodo.noRegla = hijos.get(0).noRegla; // opcional
-            }
-        }
-        return soluciones;
-    }
-
-    public int profundidad(Nodo nodo) {
-        int d = 0;
-        while (nodo != null && nodo.padre != null) {
-            d++;
-            nodo = nodo.padre;
-        }
-        return d;
-    }
-}
-
-// ---------------------------
-// Utilidades (reconstrucción)
-// ---------------------------
-class Utilidades {
-    public static List<String> reconstruirTodosLosCaminos(List<Nodo> soluciones) {
-        List<String> caminos = new ArrayList<>();
-        for (Nodo solucion : soluciones) caminos.add(reconstruirCamino(solucion));
-        return caminos;
-    }
-
-    public static String reconstruirCamino(Nodo nodo) {
-        List<String> cadenas = new ArrayList<>();
-        List<Integer> reglas = new ArrayList<>();
-
-        while (nodo != null) {
-            cadenas.add(nodo.estadoStr);
-            reglas.add(nodo.noRegla);
-            nodo = nodo.padre;
-        }
-        Collections.reverse(cadenas);
-        Collections.reverse(reglas);
-
-        if (!reglas.isEmpty()) reglas.remove(reglas.size() - 1);
-        reglas.add(null);
-
-        StringBuilder sb = new StringBuilder("Resultados de la derivación: ");
-        for (int i = 0; i < cadenas.size(); i++) {
-            String cad = cadenas.get(i);
-            Integer r = reglas.get(i);
-            if (r == null) sb.append("(").append(cad).append(")");
-            else sb.append("(").append(cad).append(",").append(r).append(")->");
-        }
-        return sb.toString();
-    }
-}
-
-/* ====================================
-   PARSER de gramáticas y utilidades IO
-   ==================================== */
-
-class GrammarParser {
-    // Formato esperado: "1. S -> AA"
-    // Cabeceras y cuerpos pueden ser cadenas (p.ej., "aaA"). Epsilon con "ε".
-    public static Map<String, List<Regla>> parseRules(List<String> lines) throws IOException {
-        Map<String, List<Regla>> mapa = new LinkedHashMap<>();
-
-        for (String raw : lines) {
-            String line = raw.trim();
-            if (line.isEmpty()) continue;
-            // quita comentarios simples si quieres (opcional)
-            // if (line.startsWith("#")) continue;
-
-            // separar índice
-            int dotIdx = line.indexOf('.');
-            if (dotIdx <= 0) continue; // línea inválida, se ignora
-            String numStr = line.substring(0, dotIdx).trim();
-
-            // cabeza y cuerpo
-            String rest = line.substring(dotIdx + 1).trim(); // "S -> AA"
-            int arrow = rest.indexOf("->");
-            if (arrow < 0) continue;
-
-            String head = rest.substring(0, arrow).trim();   // "S"
-            String body = rest.substring(arrow + 2).trim();  // "AA"
-
-            int num;
-            try { num = Integer.parseInt(numStr); }
-            catch (NumberFormatException e) { continue; }
-
-            // guarda
-            mapa.computeIfAbsent(head, k -> new ArrayList<>())
-                .add(new Regla(num, body));
-        }
-        // ordena reglas por número de regla, para reproducibilidad
-        for (List<Regla> l : mapa.values()) {
-            l.sort(Comparator.comparingInt(r -> r.noRegla));
-        }
-        return mapa;
-    }
-}
-
 /* ===========================
    VISTA/CONTROLADOR (Swing)
+   El modelo (motor de búsqueda y gramáticas) vive en los
+   paquetes busqueda y gramatica.
    =========================== */
 
 public class DerivacionGUI extends JFrame {
@@ -297,6 +40,7 @@ public class DerivacionGUI extends JFrame {
     // Ajustes
     private static final String ESTADO_INICIAL = "S";   // se asume "S" como axioma
     private static final int MAX_N = 25;                // límite sugerido
+    private static final long TIEMPO_MAX_MS = 10_000;   // la búsqueda corre en el hilo de Swing
 
     public DerivacionGUI() {
         super("Práctica 3 – Derivación Izquierda/Derecha de una G2");
@@ -475,34 +219,55 @@ public class DerivacionGUI extends JFrame {
         }
 
         // Ejecutar búsqueda con tu motor
-        GeneraEstados generador = new GeneraEstados(reglas);
-        Buscador buscador = new Buscador(metodo, ESTADO_INICIAL, cadena);
-        buscador.MAX_N = MAX_N;
+        // Métricas opcionales: java -Dbusqueda.metricas=true DerivacionGUI
+        MetricasBusqueda metricas = Boolean.getBoolean("busqueda.metricas") ? new MetricasBusqueda() : null;
+
+        // Límites: por defecto TIEMPO_MAX_MS; -Dbusqueda.tiempoMs, -Dbusqueda.maxNodos y
+        // -Dbusqueda.maxMemoriaMb reemplazan cada uno solo su límite
+        Presupuesto presupuesto = Presupuesto.desdePropiedades(Presupuesto.ILIMITADO.conTiempoMs(TIEMPO_MAX_MS));
 
         long t0 = System.nanoTime();
-        List<Nodo> soluciones = buscador.buscar(generador);
+        Resultado<String> soluciones = Derivador.buscar(reglas, metodo, ESTADO_INICIAL, cadena, MAX_N,
+                metricas != null ? metricas : OyenteBusqueda.NULO, presupuesto);
         long t1 = System.nanoTime();
 
-        List<String> caminos = Utilidades.reconstruirTodosLosCaminos(soluciones);
+        List<String> caminos = Utilidades.reconstruirTodosLosCaminos(soluciones, "Resultados de la derivación: ");
 
         // Construir salida en el panel de resultados
         StringBuilder out = new StringBuilder();
         out.append("Resultados de la Derivación por la ").append(metodo.equals("izquierda") ? "Izquierda" : "Derecha").append("\n\n");
         if (caminos.isEmpty()) {
             out.append("No se encontró derivación desde '").append(ESTADO_INICIAL)
-               .append("' hasta '").append(cadena).append("'.\n");
+               .append("' hasta '").append(cadena).append("'")
+               .append(soluciones.esParcial() ? " antes de que se detuviera la búsqueda" : "").append(".\n");
+            String rechazo = GramaticaCompilada.compilar(reglas, ESTADO_INICIAL, cadena).getRechazo();
+            if (rechazo != null) out.append(rechazo).append(".\n");
         } else {
             for (String c : caminos) {
                 out.append(c).append("\n");
             }
             if (caminos.size() > 1) {
                 out.append("\nLa Gramática ingresada es **Ambigua** para la cadena: ").append(cadena).append("\n");
+            } else if (soluciones.esParcial()) {
+                out.append("\nNo se pudo decidir si la Gramática es ambigua para la cadena: ").append(cadena)
+                   .append(" (la búsqueda no terminó)\n");
+            } else if (soluciones.esPodaAproximada()) {
+                out.append("\nNo se pudo decidir si la Gramática es ambigua para la cadena: ").append(cadena)
+                   .append(" (la poda aproximada pudo omitir derivaciones)\n");
             } else {
                 out.append("\nLa Gramática ingresada **No es ambigua** para la cadena: ").append(cadena).append("\n");
             }
         }
+        if (soluciones.esParcial()) {
+            out.append("\nAtención: la búsqueda se detuvo antes de terminar; el resultado es parcial.\n")
+               .append(soluciones.resumen()).append("\n");
+        } else if (soluciones.esPodaAproximada()) {
+            out.append("\nAtención: los visitados eran aproximados; podría faltar alguna derivación.\n")
+               .append(soluciones.resumen()).append("\n");
+        }
         double ms = (t1 - t0) / 1_000_000.0;
         out.append(String.format("\nTiempo de ejecución: %.3f ms\n", ms));
+        if (metricas != null) out.append("\n").append(metricas.resumen());
         txtResultados.setText(out.toString());
     }
 
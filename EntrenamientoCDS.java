@@ -0,0 +1,35 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+// =============================================================
+// Corrida de entrenamiento para el archivo de Class-Data Sharing
+// =============================================================
+// La ejecuta preparar_cds.sh con -XX:ArchiveClassesAtExit: recorre las
+// dos herramientas con instancias chicas y todos sus métodos y motores,
+// para que el archivo tenga las clases (y las lambdas) que cargaría
+// cualquier ejecución real. La salida se descarta. Se corre desde la
+// raíz del proyecto, donde están gramatica_1.txt y gramatica_2.txt.
+public class EntrenamientoCDS {
+
+    public static void main(String[] args) throws Exception {
+        PrintStream salida = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (String metodo : new String[]{"BFS", "BFS_simetrico", "DFS", "DFS_recursivo"}) {
+                MisionerosCanibales.main(new String[]{"-metodo", metodo});
+                MisionerosCanibales.main(new String[]{"-m", "5", "-c", "5", "-k", "3", "-metodo", metodo});
+            }
+            for (String motor : new String[]{"descendente", "ascendente", "mejor_primero"}) {
+                for (String metodo : new String[]{"derecha", "izquierda"}) {
+                    DerivacionGramatica.main(new String[]{"-motor", motor, "-metodo", metodo});
+                    DerivacionGramatica.main(new String[]{"-gramatica", "gramatica_1.txt", "-objetivo", "abddcd",
+                            "-motor", motor, "-metodo", metodo, "-maxNodos", "100000"});
+                    DerivacionGramatica.main(new String[]{"-gramatica", "gramatica_2.txt", "-objetivo", "aaaa",
+                            "-motor", motor, "-metodo", metodo, "-maxNodos", "100000"});
+                }
+            }
+        } finally {
+            System.setOut(salida);
+        }
+    }
+}
@@ -1,276 +1,96 @@
-import java.util.*;
+import busqueda.MetricasBusqueda;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import misioneros.GeneraEstados;
+import misioneros.Solucionador;
+import misioneros.Utilidades;
 
-// ==================================================
-// Clase Nodo: representa un estado del problema
-// ==================================================
-class Nodo {
-    int[] estado;          // Estado actual del problema
-    Nodo padre;            // Referencia al nodo padre
-    String operacion;      // Nombre de la operación aplicada
-    List<Nodo> hijos;      // Hijos generados
-
-    public Nodo(int[] estado, Nodo padre, String operacion) {
-        this.estado = estado;
-        this.padre = padre;
-        this.operacion = operacion;
-        this.hijos = new ArrayList<>();
-    }
-}
-
-// ==================================================
-// Clase Frontera: maneja la cola o pila (según método)
-// ==================================================
-class Frontera {
-    String metodo;              // "BFS" o "DFS"
-    LinkedList<Nodo> nodos;     // Lista enlazada como cola o pila
-
-    public Frontera(String metodo) {
-        this.metodo = metodo;
-        this.nodos = new LinkedList<>();
-    }
-
-    public void agregar(Nodo nodo) {
-        nodos.addLast(nodo); // agrega al final
-    }
-
-    public Nodo extraer() {
-        if (metodo.equals("BFS")) {
-            // Búsqueda en amplitud (cola FIFO)
-            return nodos.pollFirst();
-        } else {
-            // Búsqueda en profundidad (pila LIFO)
-            return nodos.pollLast();
-        }
-    }
-
-    public boolean esVacia() {
-        return nodos.isEmpty();
-    }
-}
-
-// ==================================================
-// Clase GeneraEstados: aplica operaciones válidas
-// ==================================================
-class GeneraEstados {
-    Map<String, int[]> operaciones;
-
-    public GeneraEstados() {
-        operaciones = new LinkedHashMap<>();
-        operaciones.put("op1", new int[]{1, 1}); // 1 misionero, 1 caníbal
-        operaciones.put("op2", new int[]{0, 2}); // 0 misioneros, 2 caníbales
-        operaciones.put("op3", new int[]{2, 0}); // 2 misioneros, 0 caníbales
-        operaciones.put("op4", new int[]{0, 1}); // 0 misioneros, 1 caníbal
-        operaciones.put("op5", new int[]{1, 0}); // 1 misionero, 0 caníbales
-    }
-
-    public List<Nodo> expandir(Nodo padre, Set<String> visitados, Set<String> abiertos) {
-        Map<String, int[]> generados = aplicarOperaciones(padre.estado);
-        List<Nodo> hijos = new ArrayList<>();
-
-        for (Map.Entry<String, int[]> entry : generados.entrySet()) {
-            String operacion = entry.getKey();
-            int[] estadoHijo = entry.getValue();
-
-            // Evitar repetir estados ya visitados o abiertos
-            if (!estaEnConjunto(estadoHijo, visitados) && !estaEnConjunto(estadoHijo, abiertos)) {
-                Nodo hijo = new Nodo(estadoHijo, padre, operacion);
-                hijos.add(hijo);
-                padre.hijos.add(hijo);
-            }
-        }
-        return hijos;
-    }
-
-    private boolean estaEnConjunto(int[] estado, Set<String> conjunto) {
-        return conjunto.contains(Arrays.toString(estado));
-    }
-
-    private Map<String, int[]> aplicarOperaciones(int[] estado) {
-        Map<String, int[]> hijos = new LinkedHashMap<>();
-        int lado = estado[2]; // 1 si el barco está a la izquierda
-        int signo = (lado == 1) ? -1 : 1; // movimiento según el lado
-
-        for (Map.Entry<String, int[]> entry : operaciones.entrySet()) {
-            String op = entry.getKey();
-            int m = entry.getValue()[0];
-            int c = entry.getValue()[1];
-
-            int[] nuevo = estado.clone();
-            nuevo[0] += signo * m;  // misioneros izq
-            nuevo[1] += signo * c;  // caníbales izq
-            nuevo[3] -= signo * m;  // misioneros der
-            nuevo[4] -= signo * c;  // caníbales der
-            nuevo[2] = 1 - estado[2]; // cambia el lado del barco
-
-            if (esValido(nuevo)) {
-                hijos.put(op, nuevo);
-            }
-        }
-        return hijos;
-    }
-
-    private boolean esValido(int[] estado) {
-        int mIzq = estado[0];
-        int cIzq = estado[1];
-        int mDer = estado[3];
-        int cDer = estado[4];
-
-        // Rango válido (0 a 3)
-        for (int v : estado) {
-            if (v < 0 || v > 3) return false;
-        }
-
-        // Reglas de equilibrio
-        if (mIzq > 0 && cIzq > mIzq) return false;
-        if (mDer > 0 && cDer > mDer) return false;
-
-        return true;
-    }
-}
+import java.util.List;
 
 // ==================================================
-// Clase Buscador: búsqueda BFS o DFS
+// Clase principal
 // ==================================================
-class Buscador {
-    Frontera frontera;
-    Set<String> visitados;
-    Set<String> abiertos;
-    int[] estadoFinal;
-    Nodo raiz;
-
-    public Buscador(String metodo, int[] estadoFinal, int[] estadoInicial) {
-        this.frontera = new Frontera(metodo);
-        this.visitados = new HashSet<>();
-        this.abiertos = new HashSet<>();
-        this.estadoFinal = estadoFinal;
-        this.raiz = new Nodo(estadoInicial, null, null);
-    }
-
-    public Nodo buscar(GeneraEstados generador) {
-        frontera.agregar(raiz);
-        abiertos.add(Arrays.toString(raiz.estado));
-
-        while (!frontera.esVacia()) {
-            Nodo actual = frontera.extraer();
-            abiertos.remove(Arrays.toString(actual.estado));
-
-            if (visitados.contains(Arrays.toString(actual.estado))) continue;
-
-            visitados.add(Arrays.toString(actual.estado));
+// El problema (misioneros.GeneraEstados) y el ciclo de búsqueda
+// (busqueda.Buscador) viven en sus paquetes; aquí solo se elige la
+// instancia y el método, desde la línea de comandos:
+//   java MisionerosCanibales [-m M] [-c C] [-k K] [-metodo METODO]
+//        [-tiempoMs n] [-maxNodos n] [-maxMemoriaMb n] [-metricas]
+// Sin -m, -c ni -k se resuelve el problema clásico (3, 3, barco para 2);
+// M y C van de 0 a 2^20 y K de 1 a 256, como en servicio.Servicio. A
+// diferencia del servicio, el total de estados no se limita: para
+// espacios grandes están BFS_externo y los límites de abajo.
+// METODO: BFS, BFS_simetrico, DFS, DFS_recursivo (por defecto) o
+// BFS_externo. Cada límite dado reemplaza el de -Dbusqueda.tiempoMs,
+// -Dbusqueda.maxNodos o -Dbusqueda.maxMemoriaMb. Con preparar_cds.sh y
+// correr.sh arranca con el archivo de Class-Data Sharing.
+public class MisionerosCanibales {
+    static final String USO = "Uso: java MisionerosCanibales [-m M] [-c C] [-k K] [-metodo METODO]"
+            + " [-tiempoMs n] [-maxNodos n] [-maxMemoriaMb n] [-metricas]";
+    static final int MAX_PERSONAS = 1 << 20;     // los mismos máximos por campo que servicio.Servicio
+    static final int MAX_CAPACIDAD = 256;
+    static final List<String> METODOS = List.of("BFS", "BFS_simetrico", "DFS", "DFS_recursivo", "BFS_externo");
 
-            if (Arrays.equals(actual.estado, estadoFinal)) {
-                return actual;
+    public static void main(String[] args) {
+        int misioneros = 3, canibales = 3, capacidad = 2;
+        boolean clasico = true;
+        String metodo = "DFS_recursivo";
+        boolean conMetricas = Boolean.getBoolean("busqueda.metricas");
+        Presupuesto presupuesto = Presupuesto.desdePropiedades();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-m": misioneros = Integer.parseInt(args[++i]); clasico = false; break;
+                    case "-c": canibales = Integer.parseInt(args[++i]); clasico = false; break;
+                    case "-k": capacidad = Integer.parseInt(args[++i]); clasico = false; break;
+                    case "-metodo": metodo = args[++i]; break;
+                    case "-tiempoMs": presupuesto = presupuesto.conTiempoMs(Long.parseLong(args[++i])); break;
+                    case "-maxNodos": presupuesto = presupuesto.conMaxExpandidos(Long.parseLong(args[++i])); break;
+                    case "-maxMemoriaMb": presupuesto = presupuesto.conMaxMemoriaMb(Long.parseLong(args[++i])); break;
+                    case "-metricas": conMetricas = true; break;
+                    default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
             }
-
-            List<Nodo> hijos = generador.expandir(actual, visitados, abiertos);
-            for (Nodo h : hijos) {
-                frontera.agregar(h);
-                abiertos.add(Arrays.toString(h.estado));
+            if (!METODOS.contains(metodo)) throw new IllegalArgumentException("Método desconocido: " + metodo);
+            if (misioneros < 0 || canibales < 0 || misioneros > MAX_PERSONAS || canibales > MAX_PERSONAS) {
+                throw new IllegalArgumentException("Misioneros y caníbales deben estar entre 0 y " + MAX_PERSONAS);
             }
-        }
-        return null;
-    }
-}
-
-// ==================================================
-// Clase BuscadorRecursivo: búsqueda DFS recursiva
-// ==================================================
-class BuscadorRecursivo {
-    int[] estadoFinal;
-    Nodo raiz;
-    Set<String> visitados;
-
-    public BuscadorRecursivo(int[] estadoFinal, int[] estadoInicial) {
-        this.estadoFinal = estadoFinal;
-        this.raiz = new Nodo(estadoInicial, null, null);
-        this.visitados = new HashSet<>();
-    }
-
-    public Nodo buscar(GeneraEstados generador) {
-        return dfsRecursivo(raiz, generador);
-    }
-
-    private Nodo dfsRecursivo(Nodo nodo, GeneraEstados generador) {
-        visitados.add(Arrays.toString(nodo.estado));
-
-        if (Arrays.equals(nodo.estado, estadoFinal)) {
-            return nodo;
-        }
-
-        List<Nodo> hijos = generador.expandir(nodo, visitados, new HashSet<>());
-
-        for (Nodo hijo : hijos) {
-            if (hijo != null && !visitados.contains(Arrays.toString(hijo.estado))) {
-                Nodo resultado = dfsRecursivo(hijo, generador);
-                if (resultado != null) {
-                    return resultado;
-                }
+            if (capacidad < 1 || capacidad > MAX_CAPACIDAD) {
+                throw new IllegalArgumentException("Capacidad fuera de rango: " + capacidad);
             }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Falta el valor de una opción" : e.getMessage());
+            System.err.println(USO);
+            System.exit(2);
         }
-        return null;
-    }
-}
-
-// ==================================================
-// Clase Utilidades: reconstruye e imprime la solución
-// ==================================================
-class Utilidades {
-    public static List<int[]> reconstruirCamino(Nodo meta) {
-        List<int[]> camino = new ArrayList<>();
-        Nodo actual = meta;
-        while (actual != null) {
-            camino.add(actual.estado);
-            actual = actual.padre;
-        }
-        Collections.reverse(camino);
-        return camino;
-    }
-
-    public static void imprimirCamino(List<int[]> camino) {
-        System.out.println("\nSolución encontrada:");
-        for (int[] e : camino) {
-            System.out.println(Arrays.toString(e));
-        }
-        System.out.println("Total de pasos: " + (camino.size() - 1));
-    }
-
-    public static void imprimirResultado(String metodo, long tiempo, List<int[]> camino) {
-        System.out.println("\n===== RESULTADO DE LA " + metodo + " =====");
-        imprimirCamino(camino);
-        System.out.println("Tiempo de ejecución: " + tiempo + " ms");
-    }
-}
 
-// ==================================================
-// Clase principal
-// ==================================================
-public class MisionerosCanibales {
-    public static void main(String[] args) {
-        int[] estadoInicial = {3, 3, 1, 0, 0};
-        int[] estadoFinal = {0, 0, 0, 3, 3};
-        String METODO = "DFS_recursivo";  // Cambiar a "DFS" o "DFS_recursivo"
+        // El clásico conserva el orden de operaciones del original
+        GeneraEstados generador = clasico ? new GeneraEstados() : new GeneraEstados(misioneros, canibales, capacidad);
 
-        GeneraEstados generador = new GeneraEstados();
-        Nodo solucion = null;
+        // Métricas de la búsqueda: -metricas o -Dbusqueda.metricas=true
+        MetricasBusqueda metricas = conMetricas ? new MetricasBusqueda() : null;
 
         long inicio = System.currentTimeMillis();
 
-        if (METODO.equals("DFS_recursivo")) {
-            BuscadorRecursivo buscador = new BuscadorRecursivo(estadoFinal, estadoInicial);
-            solucion = buscador.buscar(generador);
-        } else {
-            Buscador buscador = new Buscador(METODO, estadoFinal, estadoInicial);
-            solucion = buscador.buscar(generador);
-        }
+        Resultado<int[]> solucion = Solucionador.resolver(generador, metodo,
+                metricas != null ? metricas : OyenteBusqueda.NULO, presupuesto);
 
         long fin = System.currentTimeMillis();
         long tiempo = fin - inicio;
 
-        if (solucion != null) {
+        if (solucion.encontrada()) {
             List<int[]> camino = Utilidades.reconstruirCamino(solucion);
-            Utilidades.imprimirResultado(METODO, tiempo, camino);
+            Utilidades.imprimirResultado(metodo, tiempo, camino);
         } else {
             System.out.println("No se encontró solución.");
         }
+        if (solucion.esParcial()) {
+            System.out.println(solucion.resumen());
+        }
+
+        if (metricas != null) {
+            System.out.println();
+            System.out.print(metricas.resumen());
+        }
     }
 }
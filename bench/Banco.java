@@ -0,0 +1,134 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// =============================================================
+// Clase Banco: arnés de medición para los motores de búsqueda
+// =============================================================
+// Sigue el esquema de JMH (calentamiento, iteraciones medidas, sumidero
+// para evitar eliminación de código muerto) sin dependencias externas:
+// el proyecto se compila directamente con javac.
+//
+// Por cada caso reporta:
+//   - throughput (operaciones por segundo)
+//   - latencia por operación: p50, p90, p99 y máximo
+//   - asignación de memoria por operación y tasa de asignación (MB/s)
+//   - número y tiempo de recolecciones de basura durante la medición
+// Con --csv las filas se anexan al archivo; si es nuevo, primero va la
+// cabecera CABECERA_CSV (tiempos en nanosegundos).
+class Banco {
+    static volatile Object sumidero;   // evita que el JIT descarte el resultado
+    static final String CABECERA_CSV = "caso,ops_s,p50_ns,p90_ns,p99_ns,max_ns,bytes_op,mb_s,gc,gc_ms";
+
+    int calentamiento;                 // segundos de calentamiento
+    int medicion;                      // segundos de medición
+    String archivoCsv;                 // si no es null, se anexan los resultados
+
+    public Banco(int calentamiento, int medicion, String archivoCsv) {
+        this.calentamiento = calentamiento;
+        this.medicion = medicion;
+        this.archivoCsv = archivoCsv;
+    }
+
+    // Lee opciones comunes: --calentamiento S --medicion S --csv archivo
+    public static Banco desdeArgumentos(List<String> args) {
+        int cal = 2, med = 5;
+        String csv = null;
+        for (int i = 0; i + 1 < args.size(); i++) {
+            switch (args.get(i)) {
+                case "--calentamiento": cal = Integer.parseInt(args.get(i + 1)); break;
+                case "--medicion": med = Integer.parseInt(args.get(i + 1)); break;
+                case "--csv": csv = args.get(i + 1); break;
+                default: continue;
+            }
+            i++;
+        }
+        if (cal < 0) throw new IllegalArgumentException("--calentamiento no puede ser negativo: " + cal);
+        if (med <= 0) throw new IllegalArgumentException("--medicion debe ser de al menos 1 segundo: " + med);
+        return new Banco(cal, med, csv);
+    }
+
+    public void medir(String nombre, Supplier<Object> tarea) {
+        // ====== Calentamiento ======
+        long fin = System.nanoTime() + calentamiento * 1_000_000_000L;
+        while (System.nanoTime() < fin) {
+            sumidero = tarea.get();
+        }
+
+        // ====== Medición ======
+        com.sun.management.ThreadMXBean hilos =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long idHilo = Thread.currentThread().getId();
+
+        long[] muestras = new long[1024];
+        int n = 0;
+        long gcAntes = conteoGc(), gcTiempoAntes = tiempoGc();
+        long asignadoAntes = hilos.getThreadAllocatedBytes(idHilo);
+        long inicio = System.nanoTime();
+        fin = inicio + medicion * 1_000_000_000L;
+        long t = inicio;
+        do {                            // al menos una muestra
+            sumidero = tarea.get();
+            long t2 = System.nanoTime();
+            if (n == muestras.length) muestras = Arrays.copyOf(muestras, n * 2);
+            muestras[n++] = t2 - t;
+            t = t2;
+        } while (t < fin);
+        long total = t - inicio;
+        long asignado = hilos.getThreadAllocatedBytes(idHilo) - asignadoAntes;
+        long gcs = conteoGc() - gcAntes, gcMs = tiempoGc() - gcTiempoAntes;
+
+        Arrays.sort(muestras, 0, n);
+        double opsSeg = n / (total / 1e9);
+        double bytesOp = (double) asignado / n;
+        double mbSeg = asignado / (total / 1e9) / (1024 * 1024);
+
+        System.out.printf("%-40s %12.1f ops/s  p50=%9.1f us  p90=%9.1f us  p99=%9.1f us  max=%9.1f us  "
+                        + "%10.0f B/op  %8.1f MB/s  gc=%d (%d ms)%n",
+                nombre, opsSeg,
+                percentil(muestras, n, 0.50) / 1e3, percentil(muestras, n, 0.90) / 1e3,
+                percentil(muestras, n, 0.99) / 1e3, muestras[n - 1] / 1e3,
+                bytesOp, mbSeg, gcs, gcMs);
+
+        if (archivoCsv != null) {
+            boolean nuevo = new File(archivoCsv).length() == 0;
+            try (PrintWriter out = new PrintWriter(new FileWriter(archivoCsv, true))) {
+                if (nuevo) out.println(CABECERA_CSV);
+                out.printf(java.util.Locale.ROOT, "%s,%.1f,%d,%d,%d,%d,%.0f,%.1f,%d,%d%n",
+                        nombre, opsSeg,
+                        percentil(muestras, n, 0.50), percentil(muestras, n, 0.90),
+                        percentil(muestras, n, 0.99), muestras[n - 1],
+                        bytesOp, mbSeg, gcs, gcMs);
+            } catch (IOException e) {
+                System.err.println("No se pudo escribir " + archivoCsv + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static long percentil(long[] ordenadas, int n, double p) {
+        int i = (int) Math.ceil(p * n) - 1;
+        return ordenadas[Math.max(0, Math.min(n - 1, i))];
+    }
+
+    private static long conteoGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long tiempoGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+import busqueda.OyenteBusqueda;
+import gramatica.Derivador;
+import gramatica.GrammarParser;
+import gramatica.Regla;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+// =============================================================
+// Benchmark del Buscador con derivaciones de gramáticas
+// =============================================================
+// Compilar y ejecutar desde la raíz del proyecto:
+//   javac -encoding UTF-8 -sourcepath . -d out/bench bench/Banco.java bench/BenchDerivacion.java
+//   java -cp out/bench BenchDerivacion [--calentamiento S] [--medicion S] [--csv archivo]
+//
+// Casos medidos, cada uno con derivación por la izquierda y por la derecha:
+//   - gramatica_1.txt con "abddcd" y gramatica_2.txt con "aaaaa" y "aaaaaaaa"
+//   - gramáticas de estrés generadas: anidada (a^n b^n), producto de dos
+//     listas y cadenas de k no terminales con alternativas, de tamaño creciente
+// Con -Dgramatica.motor=ascendente o =mejor_primero se mide ese motor.
+public class BenchDerivacion {
+
+    public static void main(String[] args) throws IOException {
+        Banco banco = Banco.desdeArgumentos(Arrays.asList(args));
+
+        medir(banco, "gramatica_1 abddcd", leer("gramatica_1.txt"), "abddcd");
+        medir(banco, "gramatica_2 a^5", leer("gramatica_2.txt"), "aaaaa");
+        medir(banco, "gramatica_2 a^8", leer("gramatica_2.txt"), "aaaaaaaa");
+
+        for (int n : new int[]{4, 8, 12}) {
+            String objetivo = "a".repeat(n) + "b".repeat(n);
+            medir(banco, "anidada a^" + n + "b^" + n, anidada(), objetivo);
+            medir(banco, "producto a^" + n + "b^" + n, producto(), objetivo);
+        }
+        for (int k : new int[]{4, 8, 16}) {
+            medir(banco, "cadena k=" + k, cadena(k), "a".repeat((k - 1) / 2) + "c" + "b".repeat((k - 1) / 2));
+        }
+    }
+
+    static void medir(Banco banco, String nombre, Map<String, List<Regla>> reglas, String objetivo) {
+        for (String metodo : new String[]{"izquierda", "derecha"}) {
+            banco.medir("der " + nombre + " " + metodo,
+                    () -> Derivador.buscar(reglas, metodo, "S", objetivo, Derivador.MAX_N, OyenteBusqueda.NULO));
+        }
+    }
+
+    static Map<String, List<Regla>> leer(String archivo) throws IOException {
+        return GrammarParser.parseRules(Files.readAllLines(Paths.get(archivo), StandardCharsets.UTF_8));
+    }
+
+    // S -> aSb | ab   (lineal: una sola rama llega a la cadena)
+    static Map<String, List<Regla>> anidada() throws IOException {
+        return GrammarParser.parseRules(Arrays.asList(
+                "1. S -> aSb",
+                "2. S -> ab"));
+    }
+
+    // S -> AB, A -> aA | a, B -> bB | b   (formas sentenciales cuadráticas en la profundidad)
+    static Map<String, List<Regla>> producto() throws IOException {
+        return GrammarParser.parseRules(Arrays.asList(
+                "1. S -> AB",
+                "2. A -> aA",
+                "3. A -> a",
+                "4. B -> bB",
+                "5. B -> b"));
+    }
+
+    // S -> A, y para cada no terminal X_i: X_i -> a X_{i+1} | X_{i+1} b | X_{i+1}; el último -> c
+    static Map<String, List<Regla>> cadena(int k) throws IOException {
+        String noTerminales = "ABCDEFGHIJKLMNOPQRTUVWXYZ"; // sin S
+        k = Math.min(k, noTerminales.length());
+        List<String> lineas = new ArrayList<>();
+        int n = 1;
+        lineas.add(n++ + ". S -> A");
+        for (int i = 0; i < k - 1; i++) {
+            char x = noTerminales.charAt(i), y = noTerminales.charAt(i + 1);
+            lineas.add(n++ + ". " + x + " -> a" + y);
+            lineas.add(n++ + ". " + x + " -> " + y + "b");
+            lineas.add(n++ + ". " + x + " -> " + y);
+        }
+        lineas.add(n + ". " + noTerminales.charAt(k - 1) + " -> c");
+        return GrammarParser.parseRules(lineas);
+    }
+}
@@ -0,0 +1,49 @@
+import busqueda.OyenteBusqueda;
+import misioneros.GeneraEstados;
+import misioneros.Solucionador;
+
+import java.util.*;
+
+// =============================================================
+// Benchmark del Buscador con misioneros y caníbales
+// =============================================================
+// Compilar y ejecutar desde la raíz del proyecto:
+//   javac -encoding UTF-8 -sourcepath . -d out/bench bench/Banco.java bench/BenchMisioneros.java
+//   java -cp out/bench BenchMisioneros [M:C:K ...] [--calentamiento S] [--medicion S] [--csv archivo]
+//
+// Cada instancia M:C:K (misioneros, caníbales, capacidad del barco) se
+// mide con BFS, BFS_simetrico, DFS y DFS_recursivo. Sin instancias se
+// usa un conjunto por defecto que va del problema clásico a instancias
+// grandes.
+public class BenchMisioneros {
+    static final String[] INSTANCIAS = {"3:3:2", "10:10:4", "50:50:5", "100:100:6"};
+    static final String[] METODOS = {"BFS", "BFS_simetrico", "DFS", "DFS_recursivo"};
+
+    public static void main(String[] args) {
+        List<String> lista = Arrays.asList(args);
+        Banco banco = Banco.desdeArgumentos(lista);
+
+        List<String> instancias = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) { i++; continue; }
+            instancias.add(args[i]);
+        }
+        if (instancias.isEmpty()) instancias = Arrays.asList(INSTANCIAS);
+
+        for (String instancia : instancias) {
+            String[] p = instancia.split(":");
+            int m = Integer.parseInt(p[0]);
+            int c = Integer.parseInt(p[1]);
+            int k = Integer.parseInt(p[2]);
+
+            GeneraEstados generador = (m == 3 && c == 3 && k == 2)
+                    ? new GeneraEstados()
+                    : new GeneraEstados(m, c, k);
+
+            for (String metodo : METODOS) {
+                banco.medir("mc " + instancia + " " + metodo,
+                        () -> Solucionador.resolver(generador, metodo, OyenteBusqueda.NULO));
+            }
+        }
+    }
+}
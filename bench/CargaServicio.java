@@ -0,0 +1,118 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// =============================================================
+// Generador de carga para servicio.Servicio
+// =============================================================
+// Compilar y ejecutar desde la raíz del proyecto (con el servicio ya
+// levantado):
+//   javac -encoding UTF-8 -d out/bench bench/CargaServicio.java
+//   java -cp out/bench CargaServicio [--url http://127.0.0.1:8080] [--clientes N]
+//        [--segundos S] [--ruta misioneros|derivacion|mezcla] [--inquilinos N]
+//
+// Cada cliente es un hilo que envía solicitudes una tras otra (lazo
+// cerrado) durante S segundos, repartidos entre N inquilinos. Al final
+// informa solicitudes por segundo, latencias observadas del lado del
+// cliente (p50, p90, p99, máximo) y la cuenta por código HTTP.
+// La ruta derivacion envía gramatica_1.txt con objetivo abddcd.
+public class CargaServicio {
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:8080";
+        int clientes = 16, segundos = 10, inquilinos = 4;
+        String ruta = "mezcla";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url": url = args[i + 1]; break;
+                case "--clientes": clientes = Integer.parseInt(args[i + 1]); break;
+                case "--segundos": segundos = Integer.parseInt(args[i + 1]); break;
+                case "--ruta": ruta = args[i + 1]; break;
+                case "--inquilinos": inquilinos = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        String gramatica = Files.exists(Paths.get("gramatica_1.txt"))
+                ? Files.readString(Paths.get("gramatica_1.txt"))
+                : "1. S -> ABC\n2. E -> b\n3. aaA -> aaBB\n4. B -> d\n5. A -> aE\n6. C -> dcd\n";
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        List<HttpRequest> solicitudes = new ArrayList<>();
+        if (!ruta.equals("derivacion")) {
+            solicitudes.add(HttpRequest.newBuilder(URI.create(url + "/misioneros?m=3&c=3&k=2&metodo=BFS")).build());
+            solicitudes.add(HttpRequest.newBuilder(URI.create(url + "/misioneros?m=50&c=50&k=5&metodo=oraculo")).build());
+        }
+        if (!ruta.equals("misioneros")) {
+            solicitudes.add(HttpRequest.newBuilder(URI.create(url + "/derivacion?objetivo=abddcd&metodo=izquierda"))
+                    .POST(HttpRequest.BodyPublishers.ofString(gramatica)).build());
+        }
+
+        AtomicBoolean parar = new AtomicBoolean();
+        long[][] latencias = new long[clientes][];
+        int[] cantidades = new int[clientes];
+        List<Map<Integer, Integer>> codigos = new ArrayList<>();
+        Thread[] hilos = new Thread[clientes];
+        for (int h = 0; h < clientes; h++) {
+            int id = h;
+            String inquilino = "cliente" + (h % inquilinos);
+            Map<Integer, Integer> porCodigo = new TreeMap<>();
+            codigos.add(porCodigo);
+            latencias[h] = new long[1 << 16];
+            hilos[h] = new Thread(() -> {
+                int n = 0;
+                while (!parar.get()) {
+                    HttpRequest base = solicitudes.get(n % solicitudes.size());
+                    HttpRequest req = HttpRequest.newBuilder(base, (k, v) -> true)
+                            .header("X-Inquilino", inquilino).build();
+                    long t0 = System.nanoTime();
+                    int codigo;
+                    try {
+                        codigo = cliente.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        codigo = -1;
+                    }
+                    if (n == latencias[id].length) latencias[id] = Arrays.copyOf(latencias[id], n * 2);
+                    latencias[id][n++] = System.nanoTime() - t0;
+                    porCodigo.merge(codigo, 1, Integer::sum);
+                }
+                cantidades[id] = n;
+            });
+            hilos[h].start();
+        }
+        long t0 = System.nanoTime();
+        Thread.sleep(segundos * 1000L);
+        parar.set(true);
+        for (Thread t : hilos) t.join();
+        double transcurrido = (System.nanoTime() - t0) / 1e9;
+
+        int total = 0;
+        for (int n : cantidades) total += n;
+        long[] todas = new long[total];
+        int k = 0;
+        Map<Integer, Integer> totalCodigos = new TreeMap<>();
+        for (int h = 0; h < clientes; h++) {
+            System.arraycopy(latencias[h], 0, todas, k, cantidades[h]);
+            k += cantidades[h];
+            codigos.get(h).forEach((c, n) -> totalCodigos.merge(c, n, Integer::sum));
+        }
+        Arrays.sort(todas);
+        System.out.printf("%d solicitudes en %.1f s: %.0f/s%n", total, transcurrido, total / transcurrido);
+        if (total > 0) {
+            System.out.printf("latencia ms  p50 %.3f  p90 %.3f  p99 %.3f  max %.3f%n",
+                    todas[(int) (total * 0.50)] / 1e6, todas[(int) (total * 0.90)] / 1e6,
+                    todas[Math.min(total - 1, (int) (total * 0.99))] / 1e6, todas[total - 1] / 1e6);
+        }
+        System.out.println("códigos: " + totalCodigos);
+    }
+}
@@ -0,0 +1,110 @@
+package busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// =============================================================
+// Clase Arbol: nodos de la búsqueda en arreglos paralelos
+// =============================================================
+// Cada nodo es un índice: su estado, su padre, la operación que lo
+// generó y su profundidad se guardan en arreglos, en lugar de un objeto
+// Nodo con lista de hijos. La profundidad queda en O(1) y reconstruir
+// un camino es seguir los índices de padre hasta la raíz (-1).
+//
+// Con soltarRamasMuertas() el árbol deja de retener los estados que ya
+// no pueden hacer falta: cada nodo lleva la cuenta de sus hijos vivos más
+// uno por sí mismo hasta que el Buscador lo da por terminado; al llegar
+// a cero se suelta su estado y se descuenta del padre. Quedan los nodos
+// por explorar, sus antepasados y los caminos fijados (las soluciones);
+// estado() de un nodo soltado devuelve null.
+public class Arbol<S> {
+    private Object[] estados = new Object[256];
+    private int[] padres = new int[256];
+    private int[] operaciones = new int[256];
+    private int[] profundidades = new int[256];
+    private int[] pendientes;             // null: se retienen todos los estados
+    private int n;
+
+    public void soltarRamasMuertas() {
+        if (pendientes == null) pendientes = new int[estados.length];
+    }
+
+    // Agrega un nodo y devuelve su índice; la raíz usa padre -1
+    public int agregar(S estado, int padre, int operacion) {
+        if (n == estados.length) crecer();
+        estados[n] = estado;
+        padres[n] = padre;
+        operaciones[n] = operacion;
+        profundidades[n] = (padre < 0) ? 0 : profundidades[padre] + 1;
+        if (pendientes != null) {
+            pendientes[n] = 1;
+            if (padre >= 0) pendientes[padre]++;
+        }
+        return n++;
+    }
+
+    // El nodo ya no se expandirá; si no le quedan hijos vivos se suelta
+    // su estado y, en cascada, el de los antepasados que queden sin hijos
+    public void terminado(int nodo) {
+        if (pendientes == null) return;
+        for (int actual = nodo; actual >= 0 && --pendientes[actual] == 0; actual = padres[actual]) {
+            estados[actual] = null;
+        }
+    }
+
+    // Retiene el camino de la raíz a nodo aunque se termine (una solución)
+    public void fijar(int nodo) {
+        if (pendientes != null) pendientes[nodo]++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public S estado(int nodo) {
+        return (S) estados[nodo];
+    }
+
+    public int padre(int nodo) {
+        return padres[nodo];
+    }
+
+    public int operacion(int nodo) {
+        return operaciones[nodo];
+    }
+
+    public int profundidad(int nodo) {
+        return profundidades[nodo];
+    }
+
+    public int tamano() {
+        return n;
+    }
+
+    // Estados desde la raíz hasta nodo
+    public List<S> camino(int nodo) {
+        List<S> camino = new ArrayList<>(profundidades[nodo] + 1);
+        for (int actual = nodo; actual >= 0; actual = padres[actual]) {
+            camino.add(estado(actual));
+        }
+        Collections.reverse(camino);
+        return camino;
+    }
+
+    // Operaciones aplicadas desde la raíz hasta nodo (una menos que estados)
+    public int[] operacionesCamino(int nodo) {
+        int[] ops = new int[profundidades[nodo]];
+        for (int actual = nodo, i = ops.length - 1; i >= 0; actual = padres[actual], i--) {
+            ops[i] = operaciones[actual];
+        }
+        return ops;
+    }
+
+    private void crecer() {
+        int cap = estados.length * 2;
+        estados = Arrays.copyOf(estados, cap);
+        padres = Arrays.copyOf(padres, cap);
+        operaciones = Arrays.copyOf(operaciones, cap);
+        profundidades = Arrays.copyOf(profundidades, cap);
+        if (pendientes != null) pendientes = Arrays.copyOf(pendientes, cap);
+    }
+}
@@ -0,0 +1,237 @@
+package busqueda;
+
+import java.util.Arrays;
+
+// =============================================================
+// Clase Buscador: ciclo de búsqueda genérico
+// =============================================================
+// Recorre un EspacioEstados con la Frontera y los Visitados que se le
+// den. Opciones (campos públicos, se ajustan antes de buscar):
+//   todas               sigue buscando tras la primera meta (ambigüedad)
+//   podarAlGenerar      descarta al generar los hijos que ya estén en
+//                       visitados o en abiertos (si hay conjunto de abiertos)
+//   profundidadMaxima   no expande nodos más profundos que este límite
+//   oyente              recibe métricas (OyenteBusqueda.NULO = apagado)
+//   presupuesto         tiempo, nodos expandidos y memoria de visitados;
+//                       al agotarse se devuelve un Resultado parcial
+//   traza               recibe cada nodo creado, expandido o meta (null =
+//                       apagada); con traza, el Arbol suelta los estados de
+//                       las ramas agotadas, que ya quedaron en ella
+//
+// Ciclo: extraer nodo -> meta? -> ya visitado? -> marcar -> límite de
+// profundidad -> presupuesto -> expandir y agregar los hijos a la
+// frontera como un lote.
+public class Buscador<S> {
+    final EspacioEstados<S> espacio;
+    final Frontera frontera;
+    final Visitados<S> visitados;
+    final Visitados<S> abiertos;          // puede ser null
+
+    public String nombre = "búsqueda";
+    public boolean todas = false;
+    public boolean podarAlGenerar = false;
+    public int profundidadMaxima = Integer.MAX_VALUE;
+    public OyenteBusqueda oyente = OyenteBusqueda.NULO;
+    public Presupuesto presupuesto = Presupuesto.ILIMITADO;
+    public TrazaBusqueda<S> traza;
+
+    private Arbol<S> arbol;
+    private int[] soluciones;
+    private int nSoluciones;
+
+    // Estadísticas y control del presupuesto
+    private long expandidos;
+    private long generados;
+    private int profundidadAlcanzada;
+    private long t0;
+    private boolean conPlazo;
+    private Resultado.Fin fin;
+
+    // Estado de la expansión en curso (lo usa el callback de sucesores)
+    private int actual;
+    private int[] lote = new int[16];
+    private int nLote;
+    private boolean medir;
+    private final Sucesores<S> receptor = this::recibir;
+
+    public Buscador(EspacioEstados<S> espacio, Frontera frontera, Visitados<S> visitados, Visitados<S> abiertos) {
+        this.espacio = espacio;
+        this.frontera = frontera;
+        this.visitados = visitados;
+        this.abiertos = abiertos;
+        frontera.alDescartar(nodo -> arbol.terminado(nodo));
+    }
+
+    public Buscador(EspacioEstados<S> espacio, Frontera frontera, Visitados<S> visitados) {
+        this(espacio, frontera, visitados, null);
+    }
+
+    public Resultado<S> buscar() {
+        iniciar();
+        S inicial = espacio.inicial();
+        int raiz = arbol.agregar(inicial, -1, -1);
+        if (traza != null) traza.nodo(raiz, -1, -1, 0, inicial);
+        frontera.agregar(raiz);
+        if (abiertos != null) abiertos.agregar(inicial);
+
+        while (!frontera.esVacia()) {
+            int nodo = frontera.extraer();
+            S estado = arbol.estado(nodo);
+            if (abiertos != null) abiertos.quitar(estado);
+
+            if (espacio.esMeta(estado)) {
+                agregarSolucion(nodo);
+                if (!todas) break;
+            }
+
+            if (!visitados.agregar(estado)) {
+                if (medir) oyente.duplicadoVisitados();
+                arbol.terminado(nodo);
+                continue;
+            }
+
+            int d = arbol.profundidad(nodo);
+            if (d > profundidadMaxima) {
+                arbol.terminado(nodo);
+                continue;
+            }
+            if (agotado()) break;
+
+            expandir(nodo, estado);
+            arbol.terminado(nodo);
+            frontera.agregarLote(lote, nLote);
+            if (abiertos != null) {
+                for (int i = 0; i < nLote; i++) abiertos.agregar(arbol.estado(lote[i]));
+            }
+            if (medir) oyente.frontera(frontera.tamano());
+        }
+        return terminar();
+    }
+
+    // DFS recursivo: marca al entrar y recorre los hijos en el orden generado
+    public Resultado<S> buscarRecursivo() {
+        iniciar();
+        S inicial = espacio.inicial();
+        int raiz = arbol.agregar(inicial, -1, -1);
+        if (traza != null) traza.nodo(raiz, -1, -1, 0, inicial);
+        try {
+            dfsRecursivo(raiz);
+        } catch (StackOverflowError e) {
+            // Sin memoria de pila para seguir bajando: se devuelve lo encontrado
+            fin = Resultado.Fin.MEMORIA_AGOTADA;
+        }
+        return terminar();
+    }
+
+    private boolean dfsRecursivo(int nodo) {
+        S estado = arbol.estado(nodo);
+        visitados.agregar(estado);
+
+        if (espacio.esMeta(estado)) {
+            agregarSolucion(nodo);
+            if (!todas) return true;
+        }
+        int d = arbol.profundidad(nodo);
+        if (d > profundidadMaxima) {
+            arbol.terminado(nodo);
+            return false;
+        }
+        if (agotado()) return true;
+
+        // Los hijos quedan contiguos en el árbol: [desde, hasta)
+        int desde = arbol.tamano();
+        expandir(nodo, estado);
+        int hasta = arbol.tamano();
+        // La "frontera" del DFS recursivo es la pila de llamadas
+        if (medir) oyente.frontera(d + 1);
+
+        for (int hijo = desde; hijo < hasta; hijo++) {
+            if (!visitados.contiene(arbol.estado(hijo))) {
+                if (dfsRecursivo(hijo)) return true;
+            } else {
+                if (medir) oyente.duplicadoVisitados();
+                arbol.terminado(hijo);
+            }
+        }
+        arbol.terminado(nodo);
+        return false;
+    }
+
+    public Arbol<S> arbol() {
+        return arbol;
+    }
+
+    private void iniciar() {
+        arbol = new Arbol<>();
+        if (traza != null) arbol.soltarRamasMuertas();
+        soluciones = new int[4];
+        nSoluciones = 0;
+        expandidos = 0;
+        generados = 0;
+        profundidadAlcanzada = 0;
+        fin = Resultado.Fin.COMPLETA;
+        conPlazo = presupuesto.tiempoNanos != Long.MAX_VALUE;
+        medir = oyente != OyenteBusqueda.NULO;
+        if (medir) oyente.inicio(nombre);
+        t0 = System.nanoTime();
+    }
+
+    private Resultado<S> terminar() {
+        long nanos = System.nanoTime() - t0;
+        if (medir) oyente.fin();
+        return new Resultado<>(arbol, Arrays.copyOf(soluciones, nSoluciones), fin,
+                expandidos, generados, visitados.tamano(), profundidadAlcanzada, nanos,
+                visitados.esAproximado() || (abiertos != null && abiertos.esAproximado()));
+    }
+
+    // Revisa el presupuesto antes de cada expansión; el reloj cada 256 expansiones
+    private boolean agotado() {
+        if (expandidos >= presupuesto.maxExpandidos) {
+            fin = Resultado.Fin.NODOS_AGOTADOS;
+        } else if (visitados.bytes() > presupuesto.maxBytes) {
+            fin = Resultado.Fin.MEMORIA_AGOTADA;
+        } else if (conPlazo && (expandidos & 0xFF) == 0 && System.nanoTime() - t0 > presupuesto.tiempoNanos) {
+            fin = Resultado.Fin.TIEMPO_AGOTADO;
+        }
+        return fin != Resultado.Fin.COMPLETA;
+    }
+
+    private void agregarSolucion(int nodo) {
+        if (nSoluciones == soluciones.length) soluciones = Arrays.copyOf(soluciones, nSoluciones * 2);
+        soluciones[nSoluciones++] = nodo;
+        arbol.fijar(nodo);
+        if (traza != null) traza.solucion(nodo);
+        if (medir) oyente.solucion(arbol.profundidad(nodo));
+    }
+
+    private void expandir(int nodo, S estado) {
+        actual = nodo;
+        nLote = 0;
+        int d = arbol.profundidad(nodo);
+        expandidos++;
+        if (d > profundidadAlcanzada) profundidadAlcanzada = d;
+        long t = medir ? System.nanoTime() : 0;
+        espacio.expandir(estado, receptor);
+        if (medir) oyente.nodoExpandido(d, nLote, System.nanoTime() - t);
+        if (traza != null) traza.expandido(nodo, nLote);
+    }
+
+    private void recibir(S hijo, int operacion) {
+        if (podarAlGenerar) {
+            if (visitados.contiene(hijo)) {
+                if (medir) oyente.duplicadoVisitados();
+                return;
+            }
+            if (abiertos != null && abiertos.contiene(hijo)) {
+                if (medir) oyente.duplicadoAbiertos();
+                return;
+            }
+        }
+        int id = arbol.agregar(hijo, actual, operacion);
+        if (nLote == lote.length) lote = Arrays.copyOf(lote, nLote * 2);
+        lote[nLote++] = id;
+        generados++;
+        if (traza != null) traza.nodo(id, actual, operacion, arbol.profundidad(id), hijo);
+        if (medir) oyente.nodoGenerado(arbol.profundidad(id));
+    }
+}
@@ -0,0 +1,115 @@
+package busqueda;
+
+// =============================================================
+// Clase ConjuntoLong: conjunto de long con direccionamiento abierto
+// =============================================================
+// Sondeo lineal sobre un arreglo de potencia de dos, sin objetos por
+// elemento. El 0 marca una casilla libre, por eso la clave 0 se guarda
+// aparte. Al borrar se recorren las casillas siguientes hacia atrás
+// (sin lápidas) para que las búsquedas no se corten.
+public class ConjuntoLong {
+    private long[] tabla;
+    private int mascara;
+    private int n;
+    private boolean tieneCero;
+
+    public ConjuntoLong() {
+        this(64);
+    }
+
+    public ConjuntoLong(int capacidadInicial) {
+        int cap = Integer.highestOneBit(Math.max(4, capacidadInicial * 2 - 1));
+        tabla = new long[cap];
+        mascara = cap - 1;
+    }
+
+    public boolean contiene(long k) {
+        if (k == 0) return tieneCero;
+        int i = indice(k);
+        while (true) {
+            long v = tabla[i];
+            if (v == 0) return false;
+            if (v == k) return true;
+            i = (i + 1) & mascara;
+        }
+    }
+
+    // Devuelve true si la clave no estaba
+    public boolean agregar(long k) {
+        if (k == 0) {
+            if (tieneCero) return false;
+            tieneCero = true;
+            n++;
+            return true;
+        }
+        int i = indice(k);
+        while (true) {
+            long v = tabla[i];
+            if (v == 0) break;
+            if (v == k) return false;
+            i = (i + 1) & mascara;
+        }
+        tabla[i] = k;
+        if (++n * 2 > tabla.length) rehacer(tabla.length * 2);
+        return true;
+    }
+
+    public void quitar(long k) {
+        if (k == 0) {
+            if (tieneCero) { tieneCero = false; n--; }
+            return;
+        }
+        int i = indice(k);
+        while (true) {
+            long v = tabla[i];
+            if (v == 0) return;
+            if (v == k) break;
+            i = (i + 1) & mascara;
+        }
+        n--;
+        // Desplazamiento hacia atrás de las claves que quedaron detrás
+        int libre = i;
+        int j = (i + 1) & mascara;
+        while (tabla[j] != 0) {
+            int ideal = indice(tabla[j]);
+            if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+                tabla[libre] = tabla[j];
+                libre = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        tabla[libre] = 0;
+    }
+
+    public int tamano() {
+        return n;
+    }
+
+    public void limpiar() {
+        java.util.Arrays.fill(tabla, 0);
+        n = 0;
+        tieneCero = false;
+    }
+
+    // Memoria aproximada de la tabla en bytes
+    public long bytes() {
+        return 8L * tabla.length;
+    }
+
+    private int indice(long k) {
+        long h = k * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void rehacer(int capacidad) {
+        long[] vieja = tabla;
+        tabla = new long[capacidad];
+        mascara = capacidad - 1;
+        for (long v : vieja) {
+            if (v == 0) continue;
+            int i = indice(v);
+            while (tabla[i] != 0) i = (i + 1) & mascara;
+            tabla[i] = v;
+        }
+    }
+}
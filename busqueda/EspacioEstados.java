@@ -0,0 +1,25 @@
+package busqueda;
+
+// =============================================================
+// Interfaz EspacioEstados: define un problema para el Buscador
+// =============================================================
+// Un adaptador indica el estado inicial, la prueba de meta y cómo se
+// generan los sucesores. Las operaciones se identifican con un entero
+// (número de regla, índice de operación...) para no crear objetos por
+// cada hijo; operacion(int) da su nombre legible.
+public interface EspacioEstados<S> {
+
+    // Estado desde el que arranca la búsqueda
+    S inicial();
+
+    // Prueba de meta
+    boolean esMeta(S estado);
+
+    // Entrega a salida cada sucesor válido de estado junto con su operación
+    void expandir(S estado, Sucesores<S> salida);
+
+    // Nombre de una operación (para imprimir caminos)
+    default String operacion(int op) {
+        return String.valueOf(op);
+    }
+}
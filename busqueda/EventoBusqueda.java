@@ -0,0 +1,55 @@
+package busqueda;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// =============================================================
+// Evento JFR con el resumen de una búsqueda completa
+// =============================================================
+@Name("busqueda.Busqueda")
+@Label("Búsqueda")
+@Category({"Búsqueda"})
+@Description("Resumen de una ejecución de un motor de búsqueda")
+class EventoBusqueda extends Event {
+    @Label("Motor")
+    String motor;
+
+    @Label("Nodos generados")
+    long generados;
+
+    @Label("Nodos expandidos")
+    long expandidos;
+
+    @Label("Duplicados en visitados")
+    long duplicadosVisitados;
+
+    @Label("Duplicados en abiertos")
+    long duplicadosAbiertos;
+
+    @Label("Frontera máxima")
+    int fronteraMaxima;
+
+    @Label("Profundidad máxima")
+    int profundidadMaxima;
+
+    @Label("Soluciones")
+    int soluciones;
+
+    @Label("Tiempo en expansión")
+    @Timespan(Timespan.NANOSECONDS)
+    long tiempoExpansion;
+
+    @Label("Tiempo en gestión")
+    @Description("Tiempo del ciclo fuera de la expansión: frontera, visitados, metas")
+    @Timespan(Timespan.NANOSECONDS)
+    long tiempoGestion;
+
+    @Label("Memoria asignada")
+    @DataAmount
+    long asignado;
+}
@@ -0,0 +1,29 @@
+package busqueda;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// =============================================================
+// Evento JFR por cada nodo expandido (apagado por defecto)
+// =============================================================
+// Se activa en la grabación con busqueda.Expansion#enabled=true; es
+// muy frecuente, así que solo conviene para búsquedas cortas.
+@Name("busqueda.Expansion")
+@Label("Expansión")
+@Category({"Búsqueda"})
+@Enabled(false)
+@StackTrace(false)
+class EventoExpansion extends Event {
+    @Label("Profundidad")
+    int profundidad;
+
+    @Label("Hijos")
+    int hijos;
+
+    @Label("Frontera")
+    int frontera;
+}
@@ -0,0 +1,111 @@
+package busqueda;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// =============================================================
+// Clase FiltroBloom: filtro de Bloom escalable sobre huellas de 64 bits
+// =============================================================
+// Responde "seguro que no está" o "probablemente está": puede dar falsos
+// positivos, nunca falsos negativos. Como no se sabe de antemano cuántos
+// estados habrá, crece por capas (Almeida et al., "Scalable Bloom
+// Filters"): cuando una capa llega a su capacidad se abre otra del doble
+// de tamaño y con la mitad de tasa de error. Con tasa objetivo p, la
+// primera capa usa p/2 y la suma de todas queda por debajo de p.
+//
+// Cada capa usa k = ceil(log2(1/p)) bits por elemento, elegidos por doble
+// hash (Kirsch-Mitzenmacher) a partir de las dos mitades de la huella, y
+// tiene una potencia de dos de bits (~1.44 k por elemento o algo más).
+// No se puede quitar un elemento.
+public class FiltroBloom {
+    static final long CAPACIDAD_INICIAL = 1 << 16;
+
+    final double tasaFalsosPositivos;
+    private final List<Capa> capas = new ArrayList<>();
+    private long n;
+
+    public FiltroBloom(double tasaFalsosPositivos) {
+        if (!(tasaFalsosPositivos > 0 && tasaFalsosPositivos < 1)) {
+            throw new IllegalArgumentException("Tasa de falsos positivos fuera de (0, 1): " + tasaFalsosPositivos);
+        }
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        capas.add(new Capa(CAPACIDAD_INICIAL, tasaFalsosPositivos / 2));
+    }
+
+    public boolean contiene(long h) {
+        long h2 = segundoHash(h);
+        for (int c = capas.size() - 1; c >= 0; c--) {
+            if (capas.get(c).contiene(h, h2)) return true;
+        }
+        return false;
+    }
+
+    // Devuelve true si la huella (probablemente) no estaba
+    public boolean agregar(long h) {
+        if (contiene(h)) return false;
+        Capa ultima = capas.get(capas.size() - 1);
+        if (ultima.n >= ultima.capacidad) {
+            ultima = new Capa(ultima.capacidad * 2, ultima.tasa / 2);
+            capas.add(ultima);
+        }
+        ultima.poner(h, segundoHash(h));
+        n++;
+        return true;
+    }
+
+    // Elementos agregados (los descartados como falsos positivos no cuentan)
+    public long tamano() {
+        return n;
+    }
+
+    public long bytes() {
+        long b = 0;
+        for (Capa c : capas) b += 8L * c.bits.length;
+        return b;
+    }
+
+    private static long segundoHash(long h) {
+        return Huellas.mezclar(h ^ 0x9E3779B97F4A7C15L) | 1;   // impar: recorre toda la capa
+    }
+
+    // =============================================================
+    // Filtro de Bloom de tamaño fijo
+    // =============================================================
+    private static final class Capa {
+        final long capacidad;
+        final double tasa;
+        final int k;
+        final long[] bits;
+        final long mascara;
+        long n;
+
+        Capa(long capacidad, double tasa) {
+            this.capacidad = capacidad;
+            this.tasa = tasa;
+            this.k = (int) Math.ceil(-Math.log(tasa) / Math.log(2));
+            long m = (long) Math.ceil(capacidad * k / Math.log(2));
+            long potencia = Long.highestOneBit(Math.max(64, m - 1)) << 1;
+            if (potencia >= (1L << 37)) throw new IllegalStateException("Filtro de Bloom demasiado grande");
+            this.bits = new long[(int) (potencia >>> 6)];
+            this.mascara = potencia - 1;
+        }
+
+        boolean contiene(long h1, long h2) {
+            long i = h1;
+            for (int j = 0; j < k; j++, i += h2) {
+                long b = i & mascara;
+                if ((bits[(int) (b >>> 6)] & (1L << b)) == 0) return false;
+            }
+            return true;
+        }
+
+        void poner(long h1, long h2) {
+            long i = h1;
+            for (int j = 0; j < k; j++, i += h2) {
+                long b = i & mascara;
+                bits[(int) (b >>> 6)] |= 1L << b;
+            }
+            n++;
+        }
+    }
+}
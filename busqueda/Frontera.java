@@ -0,0 +1,38 @@
+package busqueda;
+
+import java.util.function.IntConsumer;
+
+// =============================================================
+// Interfaz Frontera: nodos pendientes de explorar
+// =============================================================
+// Guarda identificadores de nodo del Arbol (enteros), no objetos, así
+// que una frontera no asigna memoria por nodo.
+public interface Frontera {
+
+    void agregar(int nodo);
+
+    int extraer();
+
+    boolean esVacia();
+
+    int tamano();
+
+    // Agrega los hijos de una misma expansión (en el orden en que se generaron)
+    default void agregarLote(int[] nodos, int n) {
+        for (int i = 0; i < n; i++) agregar(nodos[i]);
+    }
+
+    // Recibe los nodos que la frontera descarta al agregarlos, sin guardarlos
+    // (el Buscador los da por terminados en el Arbol)
+    default void alDescartar(IntConsumer descartado) {}
+
+    // Cola FIFO: búsqueda en amplitud (BFS)
+    static Frontera cola() {
+        return new FronteraDeque(true, false);
+    }
+
+    // Pila LIFO: búsqueda en profundidad (DFS); sale primero el último hijo generado
+    static Frontera pila() {
+        return new FronteraDeque(false, false);
+    }
+}
@@ -0,0 +1,71 @@
+package busqueda;
+
+// =============================================================
+// Clase FronteraDeque: cola o pila de enteros sobre un arreglo circular
+// =============================================================
+// fifo elige por qué extremo se extrae. invertirLote mete los hijos de
+// una expansión en orden inverso; así se reproduce la frontera de las
+// derivaciones, que antepone cada lote a la lista:
+//   izquierda (extrae el primero) = pila con lote invertido
+//   derecha   (extrae el último)  = cola con lote invertido
+public class FronteraDeque implements Frontera {
+    private int[] datos = new int[64];
+    private int cabeza;     // posición del primer elemento
+    private int n;          // elementos guardados
+    private final boolean fifo;
+    private final boolean invertirLote;
+
+    public FronteraDeque(boolean fifo, boolean invertirLote) {
+        this.fifo = fifo;
+        this.invertirLote = invertirLote;
+    }
+
+    @Override
+    public void agregar(int nodo) {
+        if (n == datos.length) crecer();
+        datos[(cabeza + n) & (datos.length - 1)] = nodo;
+        n++;
+    }
+
+    @Override
+    public void agregarLote(int[] nodos, int cantidad) {
+        if (invertirLote) {
+            for (int i = cantidad - 1; i >= 0; i--) agregar(nodos[i]);
+        } else {
+            for (int i = 0; i < cantidad; i++) agregar(nodos[i]);
+        }
+    }
+
+    @Override
+    public int extraer() {
+        if (n == 0) throw new IllegalStateException("Frontera vacía");
+        int nodo;
+        if (fifo) {
+            nodo = datos[cabeza];
+            cabeza = (cabeza + 1) & (datos.length - 1);
+        } else {
+            nodo = datos[(cabeza + n - 1) & (datos.length - 1)];
+        }
+        n--;
+        return nodo;
+    }
+
+    @Override
+    public boolean esVacia() {
+        return n == 0;
+    }
+
+    @Override
+    public int tamano() {
+        return n;
+    }
+
+    private void crecer() {
+        int[] nuevo = new int[datos.length * 2];
+        int hastaFin = Math.min(n, datos.length - cabeza);
+        System.arraycopy(datos, cabeza, nuevo, 0, hastaFin);
+        System.arraycopy(datos, 0, nuevo, hastaFin, n - hastaFin);
+        datos = nuevo;
+        cabeza = 0;
+    }
+}
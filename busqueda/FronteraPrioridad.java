@@ -0,0 +1,100 @@
+package busqueda;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+
+// =============================================================
+// Clase FronteraPrioridad: montículo binario de nodos por costo
+// =============================================================
+// Extrae siempre el nodo de menor costo (búsqueda de mejor primero / A*).
+// El costo lo calcula la función costo a partir del id de nodo, al
+// agregarlo (se ajusta después de crear el Buscador, que es quien tiene
+// el Arbol); un costo negativo descarta el nodo (se sabe que no lleva a
+// ninguna meta) y lo informa a alDescartar. El montículo guarda ids y
+// claves en arreglos primitivos:
+//   clave = (costo << 40) | (secuencia invertida)
+// de modo que, a igual costo, sale primero el último agregado (como una
+// pila, lo que acerca antes a las hojas).
+public class FronteraPrioridad implements Frontera {
+    private static final long MASCARA_SECUENCIA = (1L << 40) - 1;
+    public static final long COSTO_MAXIMO = (1L << 23) - 1;
+
+    public IntToLongFunction costo = nodo -> 0;
+    private int[] nodos = new int[64];
+    private long[] claves = new long[64];
+    private int n;
+    private long secuencia;
+    private long descartados;
+    private IntConsumer descartado = nodo -> {};
+
+    @Override
+    public void agregar(int nodo) {
+        long c = costo.applyAsLong(nodo);
+        if (c < 0) {
+            descartados++;
+            descartado.accept(nodo);
+            return;
+        }
+        if (n == nodos.length) {
+            nodos = Arrays.copyOf(nodos, n * 2);
+            claves = Arrays.copyOf(claves, n * 2);
+        }
+        long clave = (Math.min(c, COSTO_MAXIMO) << 40) | (MASCARA_SECUENCIA - (secuencia++ & MASCARA_SECUENCIA));
+        int i = n++;
+        // Subir
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (claves[padre] <= clave) break;
+            nodos[i] = nodos[padre];
+            claves[i] = claves[padre];
+            i = padre;
+        }
+        nodos[i] = nodo;
+        claves[i] = clave;
+    }
+
+    @Override
+    public void alDescartar(IntConsumer descartado) {
+        this.descartado = descartado;
+    }
+
+    @Override
+    public int extraer() {
+        int primero = nodos[0];
+        n--;
+        if (n > 0) {
+            int nodo = nodos[n];
+            long clave = claves[n];
+            // Bajar
+            int i = 0;
+            while (true) {
+                int hijo = 2 * i + 1;
+                if (hijo >= n) break;
+                if (hijo + 1 < n && claves[hijo + 1] < claves[hijo]) hijo++;
+                if (claves[hijo] >= clave) break;
+                nodos[i] = nodos[hijo];
+                claves[i] = claves[hijo];
+                i = hijo;
+            }
+            nodos[i] = nodo;
+            claves[i] = clave;
+        }
+        return primero;
+    }
+
+    @Override
+    public boolean esVacia() {
+        return n == 0;
+    }
+
+    @Override
+    public int tamano() {
+        return n;
+    }
+
+    // Nodos que la función de costo marcó como sin salida
+    public long getDescartados() {
+        return descartados;
+    }
+}
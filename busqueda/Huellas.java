@@ -0,0 +1,39 @@
+package busqueda;
+
+// =============================================================
+// Clase Huellas: hash de 64 bits de un estado
+// =============================================================
+// Para los visitados por huella (TablaHuellas, FiltroBloom), donde el
+// String.hashCode de 32 bits chocaría demasiado. Procesa la cadena de a
+// cuatro caracteres y termina con la mezcla final de MurmurHash3, así
+// que todos los bits de la huella dependen de todos los caracteres.
+public final class Huellas {
+    private static final long K1 = 0x87C37B91114253D5L;
+    private static final long K2 = 0x4CF5AD432745937FL;
+
+    private Huellas() {
+    }
+
+    public static long de(CharSequence s) {
+        int n = s.length();
+        long h = 0x9E3779B97F4A7C15L ^ n;
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            long k = s.charAt(i) | (long) s.charAt(i + 1) << 16
+                    | (long) s.charAt(i + 2) << 32 | (long) s.charAt(i + 3) << 48;
+            h = Long.rotateLeft(h ^ (k * K1), 27) * K2 + 0x52DCE729;
+        }
+        for (; i < n; i++) h = Long.rotateLeft(h ^ (s.charAt(i) * K1), 23) * K2;
+        return mezclar(h);
+    }
+
+    // Mezcla final de MurmurHash3 (fmix64)
+    public static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,81 @@
+package busqueda;
+
+import java.util.Arrays;
+
+// =============================================================
+// Clase MapaLongInt: mapa long -> int con direccionamiento abierto
+// =============================================================
+// Como ConjuntoLong pero con un valor entero por clave (p.ej. el nodo
+// del Arbol que representa un estado). Los valores deben ser >= 0;
+// obtener() devuelve -1 si la clave no está. No admite borrado.
+public class MapaLongInt {
+    private long[] claves;
+    private int[] valores;     // -1 = casilla libre
+    private int mascara;
+    private int n;
+
+    public MapaLongInt() {
+        this(64);
+    }
+
+    public MapaLongInt(int capacidadInicial) {
+        int cap = Integer.highestOneBit(Math.max(4, capacidadInicial * 2 - 1));
+        claves = new long[cap];
+        valores = new int[cap];
+        Arrays.fill(valores, -1);
+        mascara = cap - 1;
+    }
+
+    public int obtener(long k) {
+        int i = indice(k);
+        while (valores[i] >= 0) {
+            if (claves[i] == k) return valores[i];
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    public void poner(long k, int v) {
+        int i = indice(k);
+        while (valores[i] >= 0) {
+            if (claves[i] == k) {
+                valores[i] = v;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = k;
+        valores[i] = v;
+        if (++n * 2 > claves.length) rehacer(claves.length * 2);
+    }
+
+    public int tamano() {
+        return n;
+    }
+
+    // Memoria aproximada de las tablas en bytes
+    public long bytes() {
+        return 12L * claves.length;
+    }
+
+    private int indice(long k) {
+        long h = k * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private void rehacer(int capacidad) {
+        long[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new long[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(valores, -1);
+        mascara = capacidad - 1;
+        for (int j = 0; j < viejasClaves.length; j++) {
+            if (viejosValores[j] < 0) continue;
+            int i = indice(viejasClaves[j]);
+            while (valores[i] >= 0) i = (i + 1) & mascara;
+            claves[i] = viejasClaves[j];
+            valores[i] = viejosValores[j];
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package busqueda;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// =============================================================
+// Clase MetricasBusqueda: contadores, histograma y eventos JFR
+// =============================================================
+// Oyente que acumula las métricas de una búsqueda:
+//   - nodos generados y expandidos
+//   - descartes por duplicado en visitados y en abiertos
+//   - tamaño máximo de la frontera
+//   - histograma de profundidades de los nodos expandidos
+//   - tiempo en expansión frente a tiempo de gestión del ciclo
+// Al terminar emite un EventoBusqueda de JFR (si hay una grabación
+// activa) y deja disponible un resumen en texto.
+public class MetricasBusqueda implements OyenteBusqueda {
+    String motor;
+    long generados;
+    long expandidos;
+    long duplicadosVisitados;
+    long duplicadosAbiertos;
+    int fronteraActual;
+    int fronteraMaxima;
+    int soluciones;
+    int primeraSolucion = -1;      // profundidad de la primera solución
+    long tiempoPrimeraSolucion = -1;   // ns desde el inicio hasta la primera solución
+    long[] profundidades = new long[32];   // histograma: expandidos por profundidad
+    int profundidadMaxima;
+    long tiempoExpansion;          // ns dentro de la expansión
+    long tiempoTotal;              // ns de toda la búsqueda
+
+    private long t0;
+    private long asignadoInicial;
+    private EventoBusqueda evento;
+    private boolean eventoExpansion;
+
+    @Override
+    public void inicio(String motor) {
+        this.motor = motor;
+        evento = new EventoBusqueda();
+        evento.begin();
+        eventoExpansion = new EventoExpansion().isEnabled();
+        asignadoInicial = asignadoHilo();
+        t0 = System.nanoTime();
+    }
+
+    @Override
+    public void nodoGenerado(int profundidad) {
+        generados++;
+    }
+
+    @Override
+    public void nodoExpandido(int profundidad, int hijos, long nanos) {
+        expandidos++;
+        tiempoExpansion += nanos;
+        if (profundidad >= profundidades.length) {
+            profundidades = Arrays.copyOf(profundidades, Math.max(profundidad + 1, profundidades.length * 2));
+        }
+        profundidades[profundidad]++;
+        if (profundidad > profundidadMaxima) profundidadMaxima = profundidad;
+
+        if (eventoExpansion) {
+            EventoExpansion e = new EventoExpansion();
+            e.profundidad = profundidad;
+            e.hijos = hijos;
+            e.frontera = fronteraActual;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void duplicadoVisitados() {
+        duplicadosVisitados++;
+    }
+
+    @Override
+    public void duplicadoAbiertos() {
+        duplicadosAbiertos++;
+    }
+
+    @Override
+    public void frontera(int tamano) {
+        fronteraActual = tamano;
+        if (tamano > fronteraMaxima) fronteraMaxima = tamano;
+    }
+
+    @Override
+    public void solucion(int profundidad) {
+        if (soluciones++ == 0) {
+            primeraSolucion = profundidad;
+            tiempoPrimeraSolucion = System.nanoTime() - t0;
+        }
+    }
+
+    @Override
+    public void fin() {
+        tiempoTotal = System.nanoTime() - t0;
+        if (evento != null && evento.shouldCommit()) {
+            evento.motor = motor;
+            evento.generados = generados;
+            evento.expandidos = expandidos;
+            evento.duplicadosVisitados = duplicadosVisitados;
+            evento.duplicadosAbiertos = duplicadosAbiertos;
+            evento.fronteraMaxima = fronteraMaxima;
+            evento.profundidadMaxima = profundidadMaxima;
+            evento.soluciones = soluciones;
+            evento.tiempoExpansion = tiempoExpansion;
+            evento.tiempoGestion = tiempoTotal - tiempoExpansion;
+            evento.asignado = asignadoHilo() - asignadoInicial;
+            evento.commit();
+        }
+        evento = null;
+    }
+
+    public long getGenerados() { return generados; }
+    public long getExpandidos() { return expandidos; }
+    public long getDuplicadosVisitados() { return duplicadosVisitados; }
+    public long getDuplicadosAbiertos() { return duplicadosAbiertos; }
+    public int getFronteraMaxima() { return fronteraMaxima; }
+    public int getProfundidadMaxima() { return profundidadMaxima; }
+    public int getSoluciones() { return soluciones; }
+    public long getTiempoPrimeraSolucion() { return tiempoPrimeraSolucion; }
+    public long getTiempoExpansion() { return tiempoExpansion; }
+    public long getTiempoTotal() { return tiempoTotal; }
+
+    // Expandidos por profundidad (índice = profundidad)
+    public long[] getHistogramaProfundidad() {
+        return Arrays.copyOf(profundidades, profundidadMaxima + 1);
+    }
+
+    // Resumen de fin de ejecución
+    public String resumen() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("===== MÉTRICAS (").append(motor).append(") =====\n");
+        sb.append("Nodos generados: ").append(generados).append("\n");
+        sb.append("Nodos expandidos: ").append(expandidos).append("\n");
+        sb.append("Duplicados en visitados: ").append(duplicadosVisitados).append("\n");
+        sb.append("Duplicados en abiertos: ").append(duplicadosAbiertos).append("\n");
+        sb.append("Frontera máxima: ").append(fronteraMaxima).append("\n");
+        sb.append("Soluciones: ").append(soluciones);
+        if (primeraSolucion >= 0) {
+            sb.append(String.format(" (primera a profundidad %d, a los %.3f ms)",
+                    primeraSolucion, tiempoPrimeraSolucion / 1e6));
+        }
+        sb.append("\n");
+        sb.append(String.format("Tiempo total: %.3f ms (expansión %.3f ms, gestión %.3f ms)%n",
+                tiempoTotal / 1e6, tiempoExpansion / 1e6, (tiempoTotal - tiempoExpansion) / 1e6));
+        sb.append("Expandidos por profundidad:\n");
+        long max = 1;
+        for (int d = 0; d <= profundidadMaxima; d++) max = Math.max(max, profundidades[d]);
+        for (int d = 0; d <= profundidadMaxima; d++) {
+            int barra = (int) (40 * profundidades[d] / max);
+            sb.append(String.format("  %3d | %-40s %d%n", d, "#".repeat(barra), profundidades[d]));
+        }
+        return sb.toString();
+    }
+
+    private static long asignadoHilo() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) hilos)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
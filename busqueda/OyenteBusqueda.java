@@ -0,0 +1,37 @@
+package busqueda;
+
+// =============================================================
+// Interfaz OyenteBusqueda: recibe los eventos de un ciclo de búsqueda
+// =============================================================
+// Los motores guardan un oyente (por defecto NULO) y solo notifican y
+// toman tiempos cuando se les ha asignado otro, de modo que con la
+// instrumentación apagada el costo es una comparación por iteración.
+public interface OyenteBusqueda {
+
+    // Oyente que no hace nada: instrumentación desactivada
+    OyenteBusqueda NULO = new OyenteBusqueda() {};
+
+    // Comienza una búsqueda; motor describe el motor y su método
+    default void inicio(String motor) {}
+
+    // Se creó un nodo hijo a la profundidad indicada
+    default void nodoGenerado(int profundidad) {}
+
+    // Se expandió un nodo: hijos generados y nanosegundos en la expansión
+    default void nodoExpandido(int profundidad, int hijos, long nanos) {}
+
+    // Un estado se descartó por estar ya en visitados
+    default void duplicadoVisitados() {}
+
+    // Un estado se descartó por estar ya en abiertos (en la frontera)
+    default void duplicadoAbiertos() {}
+
+    // Tamaño de la frontera tras agregar los hijos
+    default void frontera(int tamano) {}
+
+    // Se encontró una solución a la profundidad indicada
+    default void solucion(int profundidad) {}
+
+    // Termina la búsqueda
+    default void fin() {}
+}
@@ -0,0 +1,58 @@
+package busqueda;
+
+// =============================================================
+// Clase Presupuesto: límites de trabajo de una búsqueda
+// =============================================================
+// Inmutable. Cada límite vale Long.MAX_VALUE cuando no se usa:
+//   tiempoNanos      plazo de reloj desde que empieza la búsqueda
+//   maxExpandidos    nodos expandidos como máximo
+//   maxBytes         memoria aproximada del conjunto de visitados
+// Al agotarse uno, el Buscador se detiene y devuelve lo encontrado
+// hasta ese momento, con el motivo en Resultado.getFin().
+public final class Presupuesto {
+    public static final Presupuesto ILIMITADO =
+            new Presupuesto(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public final long tiempoNanos;
+    public final long maxExpandidos;
+    public final long maxBytes;
+
+    public Presupuesto(long tiempoNanos, long maxExpandidos, long maxBytes) {
+        this.tiempoNanos = tiempoNanos;
+        this.maxExpandidos = maxExpandidos;
+        this.maxBytes = maxBytes;
+    }
+
+    public Presupuesto conTiempoMs(long ms) {
+        return new Presupuesto(ms * 1_000_000L, maxExpandidos, maxBytes);
+    }
+
+    public Presupuesto conMaxExpandidos(long n) {
+        return new Presupuesto(tiempoNanos, n, maxBytes);
+    }
+
+    public Presupuesto conMaxMemoriaMb(long mb) {
+        return new Presupuesto(tiempoNanos, maxExpandidos, mb * 1024 * 1024);
+    }
+
+    public boolean esIlimitado() {
+        return tiempoNanos == Long.MAX_VALUE && maxExpandidos == Long.MAX_VALUE && maxBytes == Long.MAX_VALUE;
+    }
+
+    // Lee -Dbusqueda.tiempoMs, -Dbusqueda.maxNodos y -Dbusqueda.maxMemoriaMb
+    public static Presupuesto desdePropiedades() {
+        return desdePropiedades(ILIMITADO);
+    }
+
+    // Igual, pero cada propiedad reemplaza solo su límite de base
+    public static Presupuesto desdePropiedades(Presupuesto base) {
+        Presupuesto p = base;
+        Long ms = Long.getLong("busqueda.tiempoMs");
+        Long nodos = Long.getLong("busqueda.maxNodos");
+        Long mb = Long.getLong("busqueda.maxMemoriaMb");
+        if (ms != null) p = p.conTiempoMs(ms);
+        if (nodos != null) p = p.conMaxExpandidos(nodos);
+        if (mb != null) p = p.conMaxMemoriaMb(mb);
+        return p;
+    }
+}
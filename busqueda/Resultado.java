@@ -0,0 +1,105 @@
+package busqueda;
+
+import java.util.List;
+
+// =============================================================
+// Clase Resultado: soluciones y estadísticas de una búsqueda
+// =============================================================
+// Las soluciones son índices de nodo del árbol de búsqueda, en el orden
+// en que se encontraron. Si la búsqueda se detuvo por el Presupuesto,
+// getFin() indica cuál límite se agotó y el resultado es parcial: las
+// soluciones son las encontradas hasta entonces.
+//
+// esPodaAproximada() indica que los visitados eran aproximados (filtro de
+// Bloom): algún estado nuevo pudo podarse por error, así que podría
+// faltar alguna solución aunque la búsqueda esté COMPLETA.
+public class Resultado<S> {
+
+    // Motivo por el que terminó la búsqueda
+    public enum Fin { COMPLETA, TIEMPO_AGOTADO, NODOS_AGOTADOS, MEMORIA_AGOTADA }
+
+    private final Arbol<S> arbol;
+    private final int[] soluciones;
+    private final Fin fin;
+    private final long expandidos;
+    private final long generados;
+    private final int visitados;
+    private final int profundidadAlcanzada;
+    private final long nanos;
+    private final boolean podaAproximada;
+
+    public Resultado(Arbol<S> arbol, int[] soluciones, Fin fin, long expandidos, long generados,
+                     int visitados, int profundidadAlcanzada, long nanos) {
+        this(arbol, soluciones, fin, expandidos, generados, visitados, profundidadAlcanzada, nanos, false);
+    }
+
+    public Resultado(Arbol<S> arbol, int[] soluciones, Fin fin, long expandidos, long generados,
+                     int visitados, int profundidadAlcanzada, long nanos, boolean podaAproximada) {
+        this.arbol = arbol;
+        this.soluciones = soluciones;
+        this.fin = fin;
+        this.expandidos = expandidos;
+        this.generados = generados;
+        this.visitados = visitados;
+        this.profundidadAlcanzada = profundidadAlcanzada;
+        this.nanos = nanos;
+        this.podaAproximada = podaAproximada;
+    }
+
+    public boolean encontrada() {
+        return soluciones.length > 0;
+    }
+
+    public int cantidad() {
+        return soluciones.length;
+    }
+
+    // Nodo del árbol de la i-ésima solución
+    public int nodo(int i) {
+        return soluciones[i];
+    }
+
+    public S estado(int i) {
+        return arbol.estado(soluciones[i]);
+    }
+
+    public List<S> camino(int i) {
+        return arbol.camino(soluciones[i]);
+    }
+
+    public int[] operaciones(int i) {
+        return arbol.operacionesCamino(soluciones[i]);
+    }
+
+    public int profundidad(int i) {
+        return arbol.profundidad(soluciones[i]);
+    }
+
+    public Arbol<S> arbol() {
+        return arbol;
+    }
+
+    public Fin getFin() { return fin; }
+    public boolean esParcial() { return fin != Fin.COMPLETA; }
+    public long getExpandidos() { return expandidos; }
+    public long getGenerados() { return generados; }
+    public int getVisitados() { return visitados; }
+    public int getProfundidadAlcanzada() { return profundidadAlcanzada; }
+    public long getNanos() { return nanos; }
+    public boolean esPodaAproximada() { return podaAproximada; }
+
+    // Una línea con el motivo de fin y las estadísticas
+    public String resumen() {
+        String motivo;
+        switch (fin) {
+            case TIEMPO_AGOTADO: motivo = "detenida por tiempo"; break;
+            case NODOS_AGOTADOS: motivo = "detenida por límite de nodos"; break;
+            case MEMORIA_AGOTADA: motivo = "detenida por límite de memoria"; break;
+            default: motivo = "completa";
+        }
+        return String.format("Búsqueda %s: %d soluciones, %d nodos expandidos, %d generados, "
+                        + "%d visitados, profundidad alcanzada %d, %.3f ms",
+                motivo, soluciones.length, expandidos, generados, visitados, profundidadAlcanzada, nanos / 1e6)
+                + (podaAproximada ? " [poda aproximada: podría faltar alguna solución]" : "");
+    }
+}
@@ -0,0 +1,9 @@
+package busqueda;
+
+// =============================================================
+// Interfaz Sucesores: recibe los hijos que genera una expansión
+// =============================================================
+@FunctionalInterface
+public interface Sucesores<S> {
+    void agregar(S hijo, int operacion);
+}
@@ -0,0 +1,131 @@
+package busqueda;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+// =============================================================
+// Clase TablaHuellas: conjunto de huellas de 64 bits fuera del heap
+// =============================================================
+// Igual que ConjuntoLong (sondeo lineal, el 0 aparte, borrado por
+// desplazamiento hacia atrás), pero la tabla vive en buffers directos:
+// no pesa en el heap ni la recorre el recolector. Se parte en segmentos
+// de 2^27 casillas (1 GiB) porque un buffer no pasa de 2 GiB. La memoria
+// directa la limita -XX:MaxDirectMemorySize (por defecto, igual a -Xmx).
+public class TablaHuellas {
+    static final int SEGMENTO_LOG = 27;
+    static final long SEGMENTO = 1L << SEGMENTO_LOG;
+
+    private LongBuffer[] segmentos;
+    private long capacidad;
+    private long mascara;
+    private long n;
+    private boolean tieneCero;
+
+    public TablaHuellas() {
+        this(1 << 10);
+    }
+
+    public TablaHuellas(long capacidadInicial) {
+        reservar(Long.highestOneBit(Math.max(4, capacidadInicial * 2 - 1)));
+    }
+
+    private void reservar(long cap) {
+        capacidad = cap;
+        mascara = cap - 1;
+        int nSeg = (int) Math.max(1, cap >>> SEGMENTO_LOG);
+        long porSegmento = Math.min(cap, SEGMENTO);
+        segmentos = new LongBuffer[nSeg];
+        for (int s = 0; s < nSeg; s++) {
+            segmentos[s] = ByteBuffer.allocateDirect((int) (porSegmento * 8)).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    private long leer(long i) {
+        return segmentos[(int) (i >>> SEGMENTO_LOG)].get((int) (i & (SEGMENTO - 1)));
+    }
+
+    private void escribir(long i, long v) {
+        segmentos[(int) (i >>> SEGMENTO_LOG)].put((int) (i & (SEGMENTO - 1)), v);
+    }
+
+    public boolean contiene(long k) {
+        if (k == 0) return tieneCero;
+        for (long i = indice(k); ; i = (i + 1) & mascara) {
+            long v = leer(i);
+            if (v == 0) return false;
+            if (v == k) return true;
+        }
+    }
+
+    // Devuelve true si la huella no estaba
+    public boolean agregar(long k) {
+        if (k == 0) {
+            if (tieneCero) return false;
+            tieneCero = true;
+            n++;
+            return true;
+        }
+        long i = indice(k);
+        while (true) {
+            long v = leer(i);
+            if (v == 0) break;
+            if (v == k) return false;
+            i = (i + 1) & mascara;
+        }
+        escribir(i, k);
+        if (++n * 2 > capacidad) rehacer(capacidad * 2);
+        return true;
+    }
+
+    public void quitar(long k) {
+        if (k == 0) {
+            if (tieneCero) { tieneCero = false; n--; }
+            return;
+        }
+        long i = indice(k);
+        while (true) {
+            long v = leer(i);
+            if (v == 0) return;
+            if (v == k) break;
+            i = (i + 1) & mascara;
+        }
+        n--;
+        long libre = i;
+        long j = (i + 1) & mascara;
+        for (long v; (v = leer(j)) != 0; j = (j + 1) & mascara) {
+            long ideal = indice(v);
+            if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+                escribir(libre, v);
+                libre = j;
+            }
+        }
+        escribir(libre, 0);
+    }
+
+    public long tamano() {
+        return n;
+    }
+
+    // Memoria directa de la tabla en bytes
+    public long bytes() {
+        return 8 * capacidad;
+    }
+
+    private long indice(long k) {
+        return Huellas.mezclar(k) & mascara;
+    }
+
+    private void rehacer(long nuevaCapacidad) {
+        LongBuffer[] viejos = segmentos;
+        long viejaCapacidad = capacidad;
+        reservar(nuevaCapacidad);
+        for (long j = 0; j < viejaCapacidad; j++) {
+            long v = viejos[(int) (j >>> SEGMENTO_LOG)].get((int) (j & (SEGMENTO - 1)));
+            if (v == 0) continue;
+            long i = indice(v);
+            while (leer(i) != 0) i = (i + 1) & mascara;
+            escribir(i, v);
+        }
+    }
+}
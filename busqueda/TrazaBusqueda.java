@@ -0,0 +1,22 @@
+package busqueda;
+
+// =============================================================
+// Interfaz TrazaBusqueda: recibe cada nodo del árbol de búsqueda
+// =============================================================
+// A diferencia del OyenteBusqueda, que solo cuenta, la traza ve los
+// nodos con su estado, su padre y la operación que los generó, en el
+// orden en que el Buscador los crea (índices crecientes). Permite volcar
+// el árbol completo a disco mientras se busca (ver busqueda.traza) sin
+// que quede en memoria. Los errores de E/S se informan como
+// UncheckedIOException, porque se llaman desde dentro del ciclo.
+public interface TrazaBusqueda<S> {
+
+    // Se creó un nodo; la raíz tiene padre -1 y operación -1
+    void nodo(int id, int padre, int operacion, int profundidad, S estado);
+
+    // Se expandió un nodo y se le agregaron hijos nodos
+    default void expandido(int id, int hijos) {}
+
+    // El nodo es una meta
+    default void solucion(int id) {}
+}
@@ -0,0 +1,49 @@
+package busqueda;
+
+import java.util.function.ToLongFunction;
+
+// =============================================================
+// Interfaz Visitados: conjunto de estados ya vistos
+// =============================================================
+// El Buscador la usa tanto para los visitados (cerrados) como para los
+// abiertos. La estrategia se elige según el tipo de estado:
+//   hash()              HashSet con equals/hashCode del estado (p.ej. String)
+//   porClave(f)         estados que se empaquetan sin pérdida en un long
+//   huellas(f)          solo una huella de 64 bits por estado, fuera del heap
+//   aproximado(f, p)    filtro de Bloom: puede podar un estado nuevo con
+//                       probabilidad p (el Resultado queda marcado)
+public interface Visitados<S> {
+
+    boolean contiene(S estado);
+
+    // Devuelve true si el estado no estaba
+    boolean agregar(S estado);
+
+    void quitar(S estado);
+
+    int tamano();
+
+    // Memoria aproximada que ocupa el conjunto, en bytes
+    long bytes();
+
+    // true si puede dar por visitado un estado que no lo está
+    default boolean esAproximado() {
+        return false;
+    }
+
+    static <S> Visitados<S> hash() {
+        return new VisitadosHash<>();
+    }
+
+    static <S> Visitados<S> porClave(ToLongFunction<S> clave) {
+        return new VisitadosClave<>(clave);
+    }
+
+    static <S> Visitados<S> huellas(ToLongFunction<S> huella) {
+        return new VisitadosHuella<>(huella);
+    }
+
+    static <S> Visitados<S> aproximado(ToLongFunction<S> huella, double tasaFalsosPositivos) {
+        return new VisitadosBloom<>(huella, tasaFalsosPositivos);
+    }
+}
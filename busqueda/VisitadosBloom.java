@@ -0,0 +1,52 @@
+package busqueda;
+
+import java.util.function.ToLongFunction;
+
+// =============================================================
+// Clase VisitadosBloom: visitados aproximados con un FiltroBloom
+// =============================================================
+// Unos pocos bits por estado, a cambio de que un estado nuevo pueda
+// tomarse por visitado con probabilidad tasaFalsosPositivos y se pode:
+// la búsqueda puede perder alguna solución (en las derivaciones, alguna
+// derivación alternativa). Nunca se expande dos veces el mismo estado.
+// esAproximado() avisa al Buscador, que lo marca en el Resultado. No
+// admite quitar(), así que no sirve como conjunto de abiertos.
+class VisitadosBloom<S> implements Visitados<S> {
+    private final ToLongFunction<S> huella;
+    private final FiltroBloom filtro;
+
+    VisitadosBloom(ToLongFunction<S> huella, double tasaFalsosPositivos) {
+        this.huella = huella;
+        this.filtro = new FiltroBloom(tasaFalsosPositivos);
+    }
+
+    @Override
+    public boolean contiene(S estado) {
+        return filtro.contiene(huella.applyAsLong(estado));
+    }
+
+    @Override
+    public boolean agregar(S estado) {
+        return filtro.agregar(huella.applyAsLong(estado));
+    }
+
+    @Override
+    public void quitar(S estado) {
+        throw new UnsupportedOperationException("Un filtro de Bloom no permite quitar elementos");
+    }
+
+    @Override
+    public int tamano() {
+        return (int) Math.min(filtro.tamano(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long bytes() {
+        return filtro.bytes();
+    }
+
+    @Override
+    public boolean esAproximado() {
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package busqueda;
+
+import java.util.function.ToLongFunction;
+
+// =============================================================
+// Clase VisitadosClave: visitados sobre claves long empaquetadas
+// =============================================================
+class VisitadosClave<S> implements Visitados<S> {
+    private final ToLongFunction<S> clave;
+    private final ConjuntoLong conjunto = new ConjuntoLong();
+
+    VisitadosClave(ToLongFunction<S> clave) {
+        this.clave = clave;
+    }
+
+    @Override
+    public boolean contiene(S estado) {
+        return conjunto.contiene(clave.applyAsLong(estado));
+    }
+
+    @Override
+    public boolean agregar(S estado) {
+        return conjunto.agregar(clave.applyAsLong(estado));
+    }
+
+    @Override
+    public void quitar(S estado) {
+        conjunto.quitar(clave.applyAsLong(estado));
+    }
+
+    @Override
+    public int tamano() {
+        return conjunto.tamano();
+    }
+
+    @Override
+    public long bytes() {
+        return conjunto.bytes();
+    }
+}
@@ -0,0 +1,48 @@
+package busqueda;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// =============================================================
+// Clase VisitadosHash: visitados sobre un HashSet
+// =============================================================
+// La memoria se estima al agregar: entrada del HashMap más, si el
+// estado es una cadena, el propio String (Latin-1 compacto).
+class VisitadosHash<S> implements Visitados<S> {
+    private static final int BYTES_ENTRADA = 48;   // nodo del mapa + casilla de la tabla
+    private final Set<S> conjunto = new HashSet<>();
+    private long bytes;
+
+    @Override
+    public boolean contiene(S estado) {
+        return conjunto.contains(estado);
+    }
+
+    @Override
+    public boolean agregar(S estado) {
+        if (!conjunto.add(estado)) return false;
+        bytes += BYTES_ENTRADA + tamanoEstado(estado);
+        return true;
+    }
+
+    @Override
+    public void quitar(S estado) {
+        if (conjunto.remove(estado)) bytes -= BYTES_ENTRADA + tamanoEstado(estado);
+    }
+
+    @Override
+    public int tamano() {
+        return conjunto.size();
+    }
+
+    @Override
+    public long bytes() {
+        return bytes;
+    }
+
+    private static long tamanoEstado(Object estado) {
+        if (estado instanceof CharSequence) return 40 + ((CharSequence) estado).length();
+        if (estado instanceof int[]) return 16 + 4L * ((int[]) estado).length;
+        return 16;
+    }
+}
@@ -0,0 +1,45 @@
+package busqueda;
+
+import java.util.function.ToLongFunction;
+
+// =============================================================
+// Clase VisitadosHuella: visitados por huella de 64 bits, fuera del heap
+// =============================================================
+// Guarda solo la huella de cada estado (8 bytes por casilla, en memoria
+// directa) en vez del estado. Dos estados distintos con la misma huella
+// se confundirían; con n estados la probabilidad de algún choque es del
+// orden de n^2 / 2^65 (menos de 1 en 3000 con cien millones), así que se
+// trata como exacto.
+class VisitadosHuella<S> implements Visitados<S> {
+    private final ToLongFunction<S> huella;
+    private final TablaHuellas tabla = new TablaHuellas();
+
+    VisitadosHuella(ToLongFunction<S> huella) {
+        this.huella = huella;
+    }
+
+    @Override
+    public boolean contiene(S estado) {
+        return tabla.contiene(huella.applyAsLong(estado));
+    }
+
+    @Override
+    public boolean agregar(S estado) {
+        return tabla.agregar(huella.applyAsLong(estado));
+    }
+
+    @Override
+    public void quitar(S estado) {
+        tabla.quitar(huella.applyAsLong(estado));
+    }
+
+    @Override
+    public int tamano() {
+        return (int) Math.min(tabla.tamano(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long bytes() {
+        return tabla.bytes();
+    }
+}
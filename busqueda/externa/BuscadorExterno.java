@@ -0,0 +1,310 @@
+package busqueda.externa;
+
+import busqueda.Arbol;
+import busqueda.EspacioEstados;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+// =============================================================
+// Clase BuscadorExterno: BFS en memoria externa
+// =============================================================
+// Para espacios que no caben en el heap. Cada nivel de la BFS es un
+// conjunto de archivos de segmento en disco, ordenado por los bytes del
+// estado y sin repetidos, que se lee mapeado en memoria:
+//
+//   1. Se expanden los registros del nivel d. Los hijos (estado, padre,
+//      operación) se acumulan en memoria hasta memoriaRun bytes; entonces
+//      se ordenan y se vuelcan a un archivo de "run".
+//   2. Los runs se mezclan (k-way merge). Al mezclar se quitan los
+//      repetidos y los estados que ya estén en los niveles anteriores,
+//      que también están ordenados (detección diferida de duplicados).
+//      El resultado es el nivel d+1.
+//
+// Cada registro guarda la referencia a su padre en el nivel anterior,
+// así que el camino se reconstruye leyendo hacia atrás desde la meta.
+// La primera capa con una meta da caminos de longitud mínima.
+//
+// Al terminar se desmapean los niveles y se borran sus archivos (salvo
+// con conservarArchivos); los que no se pudieron borrar se avisan por la
+// salida de error y quedan en noBorrados().
+public class BuscadorExterno<S> {
+    final EspacioEstados<S> espacio;
+    final CodecEstado<S> codec;
+    final Path directorio;
+
+    public boolean todas = false;                  // todas las metas del primer nivel que tenga alguna
+    public int profundidadMaxima = Integer.MAX_VALUE;
+    public long memoriaRun = 64L << 20;            // bytes de hijos en memoria antes de volcar un run
+    public long tamSegmento = 256L << 20;          // tamaño máximo de cada archivo de segmento
+    public int nivelesPrevios = Integer.MAX_VALUE; // niveles anteriores contra los que se deduplica
+    public boolean conservarArchivos = false;
+    public Presupuesto presupuesto = Presupuesto.ILIMITADO;
+
+    private final List<LectorSegmentos> niveles = new ArrayList<>();
+    private final List<Path> archivos = new ArrayList<>();
+    private final List<Path> noBorrados = new ArrayList<>();
+    private long expandidos;
+    private long generados;
+    private long estados;
+
+    public BuscadorExterno(EspacioEstados<S> espacio, CodecEstado<S> codec, Path directorio) {
+        this.espacio = espacio;
+        this.codec = codec;
+        this.directorio = directorio;
+    }
+
+    public Resultado<S> buscar() {
+        try {
+            return buscarNiveles();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (LectorSegmentos nivel : niveles) nivel.close();
+            niveles.clear();
+            if (!conservarArchivos) borrarArchivos();
+        }
+    }
+
+    private Resultado<S> buscarNiveles() throws IOException {
+        long t0 = System.nanoTime();
+        Files.createDirectories(directorio);
+        expandidos = 0;
+        generados = 0;
+        estados = 1;
+        Resultado.Fin fin = Resultado.Fin.COMPLETA;
+        List<long[]> metas = new ArrayList<>();   // {nivel, referencia}
+
+        // Nivel 0: la raíz
+        EscritorSegmentos raiz = new EscritorSegmentos(directorio, "nivel-0", tamSegmento);
+        raiz.escribir(codec.codificar(espacio.inicial()), -1, -1);
+        raiz.close();
+        archivos.addAll(raiz.segmentos());
+        niveles.add(new LectorSegmentos(raiz.segmentos()));
+
+        int d = 0;
+        buscarNivel:
+        while (true) {
+            List<EscritorSegmentos> runs = new ArrayList<>();
+            List<Candidato> pendientes = new ArrayList<>();
+            long[] memoria = {0};
+
+            LectorSegmentos.Cursor cursor = niveles.get(d).cursor();
+            while (cursor.siguiente()) {
+                S estado = codec.decodificar(cursor.estado);
+                if (espacio.esMeta(estado)) {
+                    metas.add(new long[]{d, cursor.ref});
+                    if (!todas) break buscarNivel;
+                    continue;
+                }
+                if (d >= profundidadMaxima || !metas.isEmpty()) continue;
+                if (expandidos >= presupuesto.maxExpandidos) {
+                    fin = Resultado.Fin.NODOS_AGOTADOS;
+                    break buscarNivel;
+                }
+                if ((expandidos & 0xFF) == 0 && presupuesto.tiempoNanos != Long.MAX_VALUE
+                        && System.nanoTime() - t0 > presupuesto.tiempoNanos) {
+                    fin = Resultado.Fin.TIEMPO_AGOTADO;
+                    break buscarNivel;
+                }
+
+                expandidos++;
+                long padre = cursor.ref;
+                espacio.expandir(estado, (hijo, op) -> {
+                    byte[] bytes = codec.codificar(hijo);
+                    pendientes.add(new Candidato(bytes, padre, op));
+                    memoria[0] += bytes.length + 48;
+                });
+                if (memoria[0] >= memoriaRun) {
+                    runs.add(volcarRun(pendientes, d, runs.size()));
+                    memoria[0] = 0;
+                }
+            }
+            if (!metas.isEmpty() || d >= profundidadMaxima) break;
+
+            if (!pendientes.isEmpty()) runs.add(volcarRun(pendientes, d, runs.size()));
+            EscritorSegmentos siguiente = mezclar(runs, d + 1);
+            if (siguiente.registros() == 0) break;   // espacio agotado sin meta
+
+            estados += siguiente.registros();
+            niveles.add(new LectorSegmentos(siguiente.segmentos()));
+            d++;
+        }
+
+        Arbol<S> arbol = new Arbol<>();
+        int[] soluciones = new int[metas.size()];
+        for (int i = 0; i < metas.size(); i++) {
+            soluciones[i] = reconstruir(arbol, (int) metas.get(i)[0], metas.get(i)[1]);
+        }
+        return new Resultado<>(arbol, soluciones, fin, expandidos, generados,
+                (int) Math.min(Integer.MAX_VALUE, estados), d, System.nanoTime() - t0);
+    }
+
+    // Ordena los candidatos en memoria y los escribe como un run
+    private EscritorSegmentos volcarRun(List<Candidato> pendientes, int d, int n) throws IOException {
+        generados += pendientes.size();
+        pendientes.sort(Candidato.ORDEN);   // estable: ante empate queda el primero generado
+        EscritorSegmentos run = new EscritorSegmentos(directorio, "run-" + d + "-" + n, tamSegmento);
+        for (Candidato c : pendientes) run.escribir(c.estado, c.padre, c.operacion);
+        run.close();
+        archivos.addAll(run.segmentos());
+        pendientes.clear();
+        return run;
+    }
+
+    // Mezcla los runs, sin repetidos ni estados de niveles anteriores, en el nivel indicado
+    private EscritorSegmentos mezclar(List<EscritorSegmentos> runs, int nivel) throws IOException {
+        PriorityQueue<Entrada> cola = new PriorityQueue<>();
+        List<LectorSegmentos> lectoresRuns = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            LectorSegmentos lector = new LectorSegmentos(runs.get(i).segmentos());
+            lectoresRuns.add(lector);
+            LectorSegmentos.Cursor c = lector.cursor();
+            if (c.siguiente()) cola.add(new Entrada(c, i));
+        }
+
+        int desde = Math.max(0, niveles.size() - nivelesPrevios);
+        List<LectorSegmentos.Cursor> previos = new ArrayList<>();
+        for (int i = desde; i < niveles.size(); i++) {
+            LectorSegmentos.Cursor c = niveles.get(i).cursor();
+            if (c.siguiente()) previos.add(c);
+        }
+
+        EscritorSegmentos salida = new EscritorSegmentos(directorio, "nivel-" + nivel, tamSegmento);
+        byte[] ultimo = null;
+        while (!cola.isEmpty()) {
+            Entrada e = cola.poll();
+            LectorSegmentos.Cursor c = e.cursor;
+            byte[] estado = c.estado;
+            if ((ultimo == null || !Arrays.equals(ultimo, estado)) && !enPrevios(previos, estado)) {
+                salida.escribir(estado, c.padre, c.operacion);
+                ultimo = estado;
+            }
+            if (c.siguiente()) cola.add(e);
+        }
+        salida.close();
+        archivos.addAll(salida.segmentos());
+        for (LectorSegmentos lector : lectoresRuns) lector.close();
+        for (EscritorSegmentos run : runs) borrar(run.segmentos());
+        return salida;
+    }
+
+    // Avanza cada nivel previo hasta estado (todos van en orden creciente)
+    private static boolean enPrevios(List<LectorSegmentos.Cursor> previos, byte[] estado) {
+        for (int i = 0; i < previos.size(); i++) {
+            LectorSegmentos.Cursor c = previos.get(i);
+            int cmp;
+            while ((cmp = Arrays.compareUnsigned(c.estado, estado)) < 0) {
+                if (!c.siguiente()) {
+                    previos.remove(i--);
+                    cmp = 1;
+                    break;
+                }
+            }
+            if (cmp == 0) return true;
+        }
+        return false;
+    }
+
+    // Copia al árbol el camino desde la raíz hasta la meta y devuelve el nodo meta
+    private int reconstruir(Arbol<S> arbol, int nivel, long ref) {
+        byte[][] estadosCamino = new byte[nivel + 1][];
+        int[] ops = new int[nivel + 1];
+        for (int d = nivel; d >= 0; d--) {
+            LectorSegmentos.Cursor c = niveles.get(d).cursor();
+            niveles.get(d).leer(ref, c);
+            estadosCamino[d] = c.estado;
+            ops[d] = c.operacion;
+            ref = c.padre;
+        }
+        int nodo = -1;
+        for (int d = 0; d <= nivel; d++) {
+            nodo = arbol.agregar(codec.decodificar(estadosCamino[d]), nodo, ops[d]);
+        }
+        return nodo;
+    }
+
+    // Archivos (y el directorio) que quedaron en disco tras la última búsqueda
+    public List<Path> noBorrados() {
+        return noBorrados;
+    }
+
+    private void borrarArchivos() {
+        noBorrados.clear();
+        for (Path p : archivos) {
+            if (!borrar(p)) noBorrados.add(p);
+        }
+        archivos.clear();
+        // El directorio solo se borra si quedó vacío: puede tener archivos ajenos
+        if (Files.isDirectory(directorio)) {
+            try (Stream<Path> resto = Files.list(directorio)) {
+                if (resto.findAny().isEmpty() && !borrar(directorio)) noBorrados.add(directorio);
+            } catch (IOException e) {
+                noBorrados.add(directorio);
+            }
+        }
+        if (!noBorrados.isEmpty()) {
+            System.err.println("BuscadorExterno: no se pudieron borrar " + noBorrados);
+        }
+    }
+
+    // Los runs que fallen aquí se reintentan en borrarArchivos(), que también los tiene
+    private static void borrar(List<Path> rutas) {
+        for (Path p : rutas) borrar(p);
+    }
+
+    private static boolean borrar(Path p) {
+        try {
+            Files.deleteIfExists(p);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // =============================================================
+    // Hijo pendiente de volcar a un run
+    // =============================================================
+    private static final class Candidato {
+        static final Comparator<Candidato> ORDEN = (a, b) -> Arrays.compareUnsigned(a.estado, b.estado);
+
+        final byte[] estado;
+        final long padre;
+        final int operacion;
+
+        Candidato(byte[] estado, long padre, int operacion) {
+            this.estado = estado;
+            this.padre = padre;
+            this.operacion = operacion;
+        }
+    }
+
+    // =============================================================
+    // Cabeza de un run en la mezcla; empate: gana el run más antiguo
+    // =============================================================
+    private static final class Entrada implements Comparable<Entrada> {
+        final LectorSegmentos.Cursor cursor;
+        final int run;
+
+        Entrada(LectorSegmentos.Cursor cursor, int run) {
+            this.cursor = cursor;
+            this.run = run;
+        }
+
+        @Override
+        public int compareTo(Entrada o) {
+            int cmp = Arrays.compareUnsigned(cursor.estado, o.cursor.estado);
+            return cmp != 0 ? cmp : Integer.compare(run, o.run);
+        }
+    }
+}
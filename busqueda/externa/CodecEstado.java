@@ -0,0 +1,14 @@
+package busqueda.externa;
+
+// =============================================================
+// Interfaz CodecEstado: estado <-> bytes para guardarlo en disco
+// =============================================================
+// El BuscadorExterno ordena y compara los estados por sus bytes (sin
+// signo, lexicográficamente), así que dos estados iguales deben dar
+// exactamente los mismos bytes.
+public interface CodecEstado<S> {
+
+    byte[] codificar(S estado);
+
+    S decodificar(byte[] datos);
+}
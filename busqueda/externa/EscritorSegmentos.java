@@ -0,0 +1,91 @@
+package busqueda.externa;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// =============================================================
+// Clase EscritorSegmentos: registros secuenciales en archivos de segmento
+// =============================================================
+// Registro: [int largo][bytes del estado][long padre][int operación].
+// Cuando un segmento llegaría a tamSegmento se abre el siguiente, para
+// que cada uno pueda mapearse completo en memoria al leerlo. La
+// referencia de un registro es (segmento << 40) | desplazamiento.
+class EscritorSegmentos implements Closeable {
+    static final int CABECERA = 4 + 8 + 4;
+
+    private final Path directorio;
+    private final String prefijo;
+    private final long tamSegmento;
+    private final List<Path> segmentos = new ArrayList<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private FileChannel canal;
+    private long posicion;        // desplazamiento dentro del segmento actual
+    private long registros;
+
+    EscritorSegmentos(Path directorio, String prefijo, long tamSegmento) {
+        this.directorio = directorio;
+        this.prefijo = prefijo;
+        this.tamSegmento = tamSegmento;
+    }
+
+    // Escribe un registro y devuelve su referencia
+    long escribir(byte[] estado, long padre, int operacion) throws IOException {
+        int tam = CABECERA + estado.length;
+        if (tam > tamSegmento) {
+            throw new IllegalArgumentException("Estado de " + estado.length + " bytes no cabe en un segmento");
+        }
+        if (canal == null || posicion + tam > tamSegmento) nuevoSegmento();
+        long ref = ((long) (segmentos.size() - 1) << 40) | posicion;
+
+        if (tam > buffer.capacity()) {
+            vaciar();
+            ByteBuffer grande = ByteBuffer.allocate(tam);
+            grande.putInt(estado.length).put(estado).putLong(padre).putInt(operacion).flip();
+            while (grande.hasRemaining()) canal.write(grande);
+        } else {
+            if (buffer.remaining() < tam) vaciar();
+            buffer.putInt(estado.length).put(estado).putLong(padre).putInt(operacion);
+        }
+        posicion += tam;
+        registros++;
+        return ref;
+    }
+
+    long registros() {
+        return registros;
+    }
+
+    List<Path> segmentos() {
+        return segmentos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal != null) {
+            vaciar();
+            canal.close();
+            canal = null;
+        }
+    }
+
+    private void nuevoSegmento() throws IOException {
+        close();
+        Path p = directorio.resolve(prefijo + "-" + segmentos.size() + ".seg");
+        canal = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segmentos.add(p);
+        posicion = 0;
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package busqueda.externa;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// =============================================================
+// Clase LectorSegmentos: lee registros de segmentos mapeados en memoria
+// =============================================================
+// Cada segmento se mapea de solo lectura; el sistema operativo trae
+// las páginas según se recorren, sin copiarlas al heap.
+//
+// close() libera los mapeos en el acto (con Unsafe.invokeCleaner, si la
+// JVM lo ofrece) en vez de esperar al recolector: en Windows un archivo
+// mapeado no se puede borrar. Después de close() los cursores ya no
+// devuelven registros.
+class LectorSegmentos implements Closeable {
+    private static final Object UNSAFE;
+    private static final Method LIBERAR;
+
+    static {
+        Object unsafe = null;
+        Method liberar = null;
+        try {
+            Class<?> clase = Class.forName("sun.misc.Unsafe");
+            Field campo = clase.getDeclaredField("theUnsafe");
+            campo.setAccessible(true);
+            unsafe = campo.get(null);
+            liberar = clase.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // sin Unsafe los mapeos se liberan cuando los recoja el GC
+        }
+        UNSAFE = unsafe;
+        LIBERAR = liberar;
+    }
+
+    private MappedByteBuffer[] mapas;
+
+    LectorSegmentos(List<Path> segmentos) throws IOException {
+        mapas = new MappedByteBuffer[segmentos.size()];
+        for (int i = 0; i < mapas.length; i++) {
+            try (FileChannel canal = FileChannel.open(segmentos.get(i), StandardOpenOption.READ)) {
+                mapas[i] = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        MappedByteBuffer[] viejos = mapas;
+        mapas = new MappedByteBuffer[0];
+        if (LIBERAR == null) return;
+        for (MappedByteBuffer m : viejos) {
+            try {
+                LIBERAR.invoke(UNSAFE, m);
+            } catch (ReflectiveOperationException e) {
+                return;
+            }
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Lee el registro de una referencia en destino
+    void leer(long ref, Cursor destino) {
+        destino.segmento = (int) (ref >>> 40);
+        destino.posicion = (int) (ref & ((1L << 40) - 1));
+        destino.siguiente();
+    }
+
+    // =============================================================
+    // Cursor: recorre los registros en orden; deja el actual en sus campos
+    // =============================================================
+    class Cursor {
+        byte[] estado;
+        long padre;
+        int operacion;
+        long ref;
+        private int segmento;
+        private int posicion;
+
+        boolean siguiente() {
+            while (segmento < mapas.length && posicion >= mapas[segmento].limit()) {
+                segmento++;
+                posicion = 0;
+            }
+            if (segmento >= mapas.length) return false;
+            MappedByteBuffer m = mapas[segmento];
+            ref = ((long) segmento << 40) | posicion;
+            int largo = m.getInt(posicion);
+            estado = new byte[largo];
+            m.get(posicion + 4, estado);
+            padre = m.getLong(posicion + 4 + largo);
+            operacion = m.getInt(posicion + 12 + largo);
+            posicion += EscritorSegmentos.CABECERA + largo;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package busqueda.traza;
+
+import busqueda.TrazaBusqueda;
+import busqueda.externa.CodecEstado;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// =============================================================
+// Clase EscritorTraza: vuelca el árbol de búsqueda a un archivo
+// =============================================================
+// Se conecta como Buscador.traza y escribe cada evento a medida que
+// ocurre, acumulando en un buffer directo que se vuelca al canal cuando
+// se llena; no guarda nada de los nodos. Formatos:
+//   BINARIO  compacto, lo lee LectorTraza. Cabecera "TRZ1" y registros
+//            'N' nodo:      Δid, id - padre, operación (zigzag),
+//                           profundidad, largo y bytes del estado (codec)
+//            'X' expandido: id, hijos
+//            'S' solución:  id
+//            todos los enteros en varint (7 bits por byte)
+//   DOT      grafo de Graphviz; las soluciones van rellenas
+//   JSON     una línea JSON por evento
+//
+// desdePropiedades() arma el escritor de -Dbusqueda.traza=archivo, con el
+// formato según la extensión (.dot, .json o .jsonl, si no binario). Cada
+// búsqueda reescribe el archivo, salvo con porBusqueda: entonces la N-ésima
+// búsqueda del proceso escribe en archivo-N (antes de la extensión), para
+// que las búsquedas concurrentes no se pisen.
+public class EscritorTraza<S> implements TrazaBusqueda<S>, Closeable {
+    static final int TAMANO_BUFFER = 1 << 20;
+    static final byte[] MAGICO = {'T', 'R', 'Z', '1'};
+
+    public enum Formato { BINARIO, DOT, JSON }
+
+    public static volatile boolean porBusqueda = false;
+    private static final AtomicLong BUSQUEDAS = new AtomicLong();
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final Formato formato;
+    private final CodecEstado<S> codec;
+    private final Function<? super S, String> texto;
+    private int ultimoId = -1;
+    private long eventos;
+
+    // codec se usa en BINARIO y texto en DOT y JSON
+    public EscritorTraza(Path archivo, Formato formato, CodecEstado<S> codec,
+                         Function<? super S, String> texto) throws IOException {
+        this.formato = formato;
+        this.codec = codec;
+        this.texto = texto;
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (formato == Formato.BINARIO) buffer.put(MAGICO);
+        if (formato == Formato.DOT) escribir("digraph busqueda {\n  node [shape=box];\n");
+    }
+
+    // null si no se pidió traza
+    public static <S> EscritorTraza<S> desdePropiedades(CodecEstado<S> codec, Function<? super S, String> texto) {
+        String archivo = System.getProperty("busqueda.traza");
+        if (archivo == null || archivo.isEmpty()) return null;
+        if (porBusqueda) archivo = numerado(archivo, BUSQUEDAS.incrementAndGet());
+        try {
+            return new EscritorTraza<>(Paths.get(archivo), formatoDe(archivo), codec, texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // traza.dot -> traza-7.dot; sin extensión, traza -> traza-7
+    static String numerado(String archivo, long n) {
+        int barra = Math.max(archivo.lastIndexOf('/'), archivo.lastIndexOf('\\'));
+        int punto = archivo.lastIndexOf('.');
+        if (punto <= barra + 1) return archivo + "-" + n;
+        return archivo.substring(0, punto) + "-" + n + archivo.substring(punto);
+    }
+
+    static Formato formatoDe(String archivo) {
+        String a = archivo.toLowerCase();
+        if (a.endsWith(".dot")) return Formato.DOT;
+        if (a.endsWith(".json") || a.endsWith(".jsonl")) return Formato.JSON;
+        return Formato.BINARIO;
+    }
+
+    @Override
+    public void nodo(int id, int padre, int operacion, int profundidad, S estado) {
+        eventos++;
+        switch (formato) {
+            case BINARIO: {
+                byte[] bytes = codec.codificar(estado);
+                reservar(1 + 4 * 5 + bytes.length);
+                buffer.put((byte) 'N');
+                varint(id - ultimoId);
+                varint(id - padre);
+                varint((operacion << 1) ^ (operacion >> 31));
+                varint(profundidad);
+                varint(bytes.length);
+                if (bytes.length > buffer.remaining()) {
+                    vaciar();
+                    ByteBuffer b = ByteBuffer.wrap(bytes);
+                    try {
+                        while (b.hasRemaining()) canal.write(b);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                } else {
+                    buffer.put(bytes);
+                }
+                break;
+            }
+            case DOT:
+                escribir("  n" + id + " [label=\"" + escapar(texto.apply(estado)) + "\"];\n"
+                        + (padre >= 0 ? "  n" + padre + " -> n" + id + " [label=\"" + operacion + "\"];\n" : ""));
+                break;
+            default:
+                escribir("{\"evento\":\"nodo\",\"id\":" + id + ",\"padre\":" + padre + ",\"operacion\":" + operacion
+                        + ",\"profundidad\":" + profundidad + ",\"estado\":\"" + escapar(texto.apply(estado)) + "\"}\n");
+        }
+        ultimoId = id;
+    }
+
+    @Override
+    public void expandido(int id, int hijos) {
+        eventos++;
+        switch (formato) {
+            case BINARIO:
+                reservar(11);
+                buffer.put((byte) 'X');
+                varint(id);
+                varint(hijos);
+                break;
+            case DOT:
+                break;            // se ve en las aristas
+            default:
+                escribir("{\"evento\":\"expandido\",\"id\":" + id + ",\"hijos\":" + hijos + "}\n");
+        }
+    }
+
+    @Override
+    public void solucion(int id) {
+        eventos++;
+        switch (formato) {
+            case BINARIO:
+                reservar(6);
+                buffer.put((byte) 'S');
+                varint(id);
+                break;
+            case DOT:
+                escribir("  n" + id + " [style=filled];\n");
+                break;
+            default:
+                escribir("{\"evento\":\"solucion\",\"id\":" + id + "}\n");
+        }
+    }
+
+    public long eventos() {
+        return eventos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (formato == Formato.DOT) escribir("}\n");
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        canal.close();
+    }
+
+    // Comillas, barras y controles, válido para JSON y para etiquetas DOT
+    static String escapar(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                if (sb == null) sb = new StringBuilder(s.length() + 8).append(s, 0, i);
+                if (c == '"' || c == '\\') sb.append('\\').append(c);
+                else if (c == '\n') sb.append("\\n");
+                else sb.append(String.format("\\u%04x", (int) c));
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? s : sb.toString();
+    }
+
+    private void escribir(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        reservar(bytes.length);
+        if (bytes.length > buffer.remaining()) {
+            ByteBuffer b = ByteBuffer.wrap(bytes);
+            try {
+                while (b.hasRemaining()) canal.write(b);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void varint(int v) {
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    // Deja lugar para bytes más en el buffer si cabe, vaciándolo antes
+    private void reservar(int bytes) {
+        if (bytes > buffer.remaining()) vaciar();
+    }
+
+    private void vaciar() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) canal.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
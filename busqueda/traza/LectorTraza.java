@@ -0,0 +1,339 @@
+package busqueda.traza;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// =============================================================
+// Clase LectorTraza: reconstruye partes de una traza binaria
+// =============================================================
+// Al abrir recorre el archivo una vez y guarda solo la posición de uno
+// de cada PASO nodos y las soluciones; nodo(), camino() y subarbol()
+// vuelven a leer desde ahí lo que necesitan, así que sirve para trazas
+// mucho más grandes que la memoria.
+//
+// Uso desde la línea de comandos:
+//   java busqueda.traza.LectorTraza traza.bin [-enteros] resumen
+//   java busqueda.traza.LectorTraza traza.bin [-enteros] nodo ID
+//   java busqueda.traza.LectorTraza traza.bin [-enteros] camino ID
+//   java busqueda.traza.LectorTraza traza.bin [-enteros] subarbol ID NIVELES [MAX_NODOS]
+// Los estados se muestran como texto UTF-8 (derivaciones) o, con
+// -enteros, como arreglos de int (misioneros).
+public class LectorTraza<S> implements Closeable {
+    static final int PASO = 1024;
+
+    private final FileChannel canal;
+    private final Function<byte[], ? extends S> decodificar;
+    private final Entrada entrada;
+    private long[] puntos = new long[64];     // posición del registro del nodo k * PASO
+    private int nodos;
+    private long expandidos;
+    private int profundidadMaxima;
+    private int[] soluciones = new int[4];
+    private int nSoluciones;
+
+    // =============================================================
+    // Nodo leído de la traza; hijos solo se llena en subarbol()
+    // =============================================================
+    public static final class Nodo<S> {
+        public final int id;
+        public final int padre;
+        public final int operacion;
+        public final int profundidad;
+        public final S estado;
+        public boolean expandido;
+        public boolean solucion;
+        public final List<Nodo<S>> hijos = new ArrayList<>();
+
+        Nodo(int id, int padre, int operacion, int profundidad, S estado) {
+            this.id = id;
+            this.padre = padre;
+            this.operacion = operacion;
+            this.profundidad = profundidad;
+            this.estado = estado;
+        }
+    }
+
+    // decodificar convierte los bytes de un estado (p.ej. codec::decodificar
+    // con el CodecEstado que usó el EscritorTraza)
+    public LectorTraza(Path archivo, Function<byte[], ? extends S> decodificar) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        this.decodificar = decodificar;
+        this.entrada = new Entrada();
+        byte[] magico = new byte[4];
+        entrada.ir(0);
+        for (int i = 0; i < 4; i++) magico[i] = entrada.leerByte();
+        if (!Arrays.equals(magico, EscritorTraza.MAGICO)) {
+            throw new IOException("No es una traza binaria: " + archivo);
+        }
+        indexar();
+    }
+
+    private void indexar() throws IOException {
+        int id = -1;
+        while (!entrada.fin()) {
+            long posicion = entrada.posicion();
+            byte tipo = entrada.leerByte();
+            switch (tipo) {
+                case 'N': {
+                    id += entrada.varint();
+                    if (id != nodos) throw new IOException("Traza con índices salteados en el nodo " + id);
+                    if (id % PASO == 0) {
+                        if (id / PASO == puntos.length) puntos = Arrays.copyOf(puntos, puntos.length * 2);
+                        puntos[id / PASO] = posicion;
+                    }
+                    entrada.varint();
+                    entrada.varint();
+                    profundidadMaxima = Math.max(profundidadMaxima, entrada.varint());
+                    entrada.saltar(entrada.varint());
+                    nodos++;
+                    break;
+                }
+                case 'X':
+                    entrada.varint();
+                    entrada.varint();
+                    expandidos++;
+                    break;
+                case 'S':
+                    if (nSoluciones == soluciones.length) soluciones = Arrays.copyOf(soluciones, nSoluciones * 2);
+                    soluciones[nSoluciones++] = entrada.varint();
+                    break;
+                default:
+                    throw new IOException("Registro desconocido en la posición " + posicion);
+            }
+        }
+    }
+
+    public int nodos() {
+        return nodos;
+    }
+
+    public long expandidos() {
+        return expandidos;
+    }
+
+    public int profundidadMaxima() {
+        return profundidadMaxima;
+    }
+
+    public int[] soluciones() {
+        return Arrays.copyOf(soluciones, nSoluciones);
+    }
+
+    public Nodo<S> nodo(int id) throws IOException {
+        if (id < 0 || id >= nodos) throw new IllegalArgumentException("Nodo fuera de la traza: " + id);
+        int actual = id - id % PASO;
+        entrada.ir(puntos[id / PASO]);
+        while (true) {
+            byte tipo = entrada.leerByte();
+            if (tipo != 'N') {
+                saltarEvento(tipo);
+                continue;
+            }
+            if (actual == id) return leerNodo(id);
+            entrada.varint();
+            entrada.varint();
+            entrada.varint();
+            entrada.varint();
+            entrada.saltar(entrada.varint());
+            actual++;
+        }
+    }
+
+    // Nodos desde la raíz hasta id
+    public List<Nodo<S>> camino(int id) throws IOException {
+        List<Nodo<S>> camino = new ArrayList<>();
+        for (int actual = id; actual >= 0; ) {
+            Nodo<S> n = nodo(actual);
+            camino.add(n);
+            actual = n.padre;
+        }
+        Collections.reverse(camino);
+        return camino;
+    }
+
+    // Subárbol de raiz hasta niveles por debajo de ella y a lo sumo maxNodos
+    // nodos, con hijos, expandido y solucion completos. Un hijo siempre
+    // viene después de su padre, así que basta una pasada desde la raíz.
+    public Nodo<S> subarbol(int raiz, int niveles, int maxNodos) throws IOException {
+        Nodo<S> inicio = nodo(raiz);
+        Map<Integer, Nodo<S>> incluidos = new HashMap<>();
+        incluidos.put(raiz, inicio);
+        int limite = inicio.profundidad + niveles;
+        int id = raiz;
+        while (!entrada.fin()) {
+            byte tipo = entrada.leerByte();
+            if (tipo == 'N') {
+                id += entrada.varint();
+                int padre = id - entrada.varint();
+                Nodo<S> p = incluidos.get(padre);
+                if (p == null || p.profundidad >= limite || incluidos.size() >= maxNodos) {
+                    entrada.varint();
+                    entrada.varint();
+                    entrada.saltar(entrada.varint());
+                    continue;
+                }
+                Nodo<S> n = leerResto(id, padre);
+                p.hijos.add(n);
+                incluidos.put(id, n);
+            } else if (tipo == 'X') {
+                Nodo<S> n = incluidos.get(entrada.varint());
+                entrada.varint();
+                if (n != null) n.expandido = true;
+            } else {
+                Nodo<S> n = incluidos.get(entrada.varint());
+                if (n != null) n.solucion = true;
+            }
+        }
+        return inicio;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // Lee el nodo id con la entrada justo después de su tipo
+    private Nodo<S> leerNodo(int id) throws IOException {
+        entrada.varint();
+        int padre = id - entrada.varint();
+        return leerResto(id, padre);
+    }
+
+    private Nodo<S> leerResto(int id, int padre) throws IOException {
+        int z = entrada.varint();
+        int operacion = (z >>> 1) ^ -(z & 1);
+        int profundidad = entrada.varint();
+        byte[] bytes = entrada.leerBytes(entrada.varint());
+        return new Nodo<>(id, padre, operacion, profundidad, decodificar.apply(bytes));
+    }
+
+    private void saltarEvento(byte tipo) throws IOException {
+        entrada.varint();
+        if (tipo == 'X') entrada.varint();
+    }
+
+    // =============================================================
+    // Entrada: lectura secuencial con buffer desde una posición del canal
+    // =============================================================
+    private final class Entrada {
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        private long base;            // posición en el archivo de buffer[0]
+
+        void ir(long posicion) {
+            base = posicion;
+            buffer.clear().flip();
+        }
+
+        long posicion() {
+            return base + buffer.position();
+        }
+
+        boolean fin() throws IOException {
+            return !buffer.hasRemaining() && !llenar();
+        }
+
+        byte leerByte() throws IOException {
+            if (!buffer.hasRemaining() && !llenar()) throw new IOException("Traza truncada");
+            return buffer.get();
+        }
+
+        int varint() throws IOException {
+            int v = 0;
+            for (int corrimiento = 0; ; corrimiento += 7) {
+                byte b = leerByte();
+                v |= (b & 0x7F) << corrimiento;
+                if (b >= 0) return v;
+            }
+        }
+
+        byte[] leerBytes(int n) throws IOException {
+            byte[] bytes = new byte[n];
+            for (int i = 0; i < n; ) {
+                if (!buffer.hasRemaining() && !llenar()) throw new IOException("Traza truncada");
+                int k = Math.min(n - i, buffer.remaining());
+                buffer.get(bytes, i, k);
+                i += k;
+            }
+            return bytes;
+        }
+
+        void saltar(int n) throws IOException {
+            if (n <= buffer.remaining()) {
+                buffer.position(buffer.position() + n);
+            } else {
+                ir(posicion() + n);
+            }
+        }
+
+        private boolean llenar() throws IOException {
+            base += buffer.position();
+            buffer.clear();
+            int leidos = canal.read(buffer, base);
+            buffer.flip();
+            return leidos > 0;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: LectorTraza traza.bin [-enteros] resumen | nodo ID | camino ID"
+                    + " | subarbol ID NIVELES [MAX_NODOS]");
+            System.exit(2);
+        }
+        boolean enteros = args[1].equals("-enteros");
+        int a = enteros ? 2 : 1;
+        Function<byte[], Object> decodificar = datos -> {
+            if (!enteros) return new String(datos, StandardCharsets.UTF_8);
+            ByteBuffer b = ByteBuffer.wrap(datos);
+            int[] estado = new int[datos.length / 4];
+            for (int i = 0; i < estado.length; i++) estado[i] = b.getInt();
+            return Arrays.toString(estado);
+        };
+        try (LectorTraza<Object> lector = new LectorTraza<>(Paths.get(args[0]), decodificar)) {
+            switch (args[a]) {
+                case "resumen":
+                    System.out.println(lector.nodos() + " nodos, " + lector.expandidos() + " expandidos, "
+                            + "profundidad máxima " + lector.profundidadMaxima() + ", soluciones "
+                            + Arrays.toString(lector.soluciones()));
+                    break;
+                case "nodo":
+                    imprimir(lector.nodo(Integer.parseInt(args[a + 1])), "");
+                    break;
+                case "camino":
+                    for (Nodo<Object> n : lector.camino(Integer.parseInt(args[a + 1]))) imprimir(n, "");
+                    break;
+                case "subarbol":
+                    int maxNodos = args.length > a + 3 ? Integer.parseInt(args[a + 3]) : 10_000;
+                    Nodo<Object> raiz = lector.subarbol(Integer.parseInt(args[a + 1]),
+                            Integer.parseInt(args[a + 2]), maxNodos);
+                    imprimirArbol(raiz, "");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Orden desconocida: " + args[a]);
+            }
+        }
+    }
+
+    private static void imprimir(Nodo<?> n, String sangria) {
+        System.out.println(sangria + "#" + n.id + (n.operacion >= 0 ? " (" + n.operacion + ")" : "")
+                + " " + n.estado + (n.solucion ? "  <- solución" : ""));
+    }
+
+    private static void imprimirArbol(Nodo<?> n, String sangria) {
+        imprimir(n, sangria);
+        for (Nodo<?> h : n.hijos) imprimirArbol(h, sangria + "  ");
+    }
+}
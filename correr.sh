@@ -0,0 +1,21 @@
+#!/bin/sh
+# =============================================================
+# Lanza una herramienta con el archivo de CDS de preparar_cds.sh
+# =============================================================
+# Uso: ./correr.sh misioneros  [opciones de MisionerosCanibales]
+#      ./correr.sh derivacion  [opciones de DerivacionGramatica]
+# Para arrancar rápido en búsquedas cortas usa solo el compilador C1 y
+# el recolector serial; JAVA_OPTS se agrega al final y puede cambiarlos
+# (p.ej. JAVA_OPTS="-XX:TieredStopAtLevel=4 -XX:+UseParallelGC" para
+# búsquedas largas). Sin el archivo de CDS arranca igual, más lento.
+DIR="$(dirname "$0")/out/cli"
+case "$1" in
+    misioneros) CLASE=MisionerosCanibales ;;
+    derivacion) CLASE=DerivacionGramatica ;;
+    *) echo "Uso: $0 misioneros|derivacion [opciones]" >&2; exit 2 ;;
+esac
+shift
+CDS=""
+[ -f "$DIR/busqueda.jsa" ] && CDS="-XX:SharedArchiveFile=$DIR/busqueda.jsa"
+exec java $CDS -XX:TieredStopAtLevel=1 -XX:+UseSerialGC -XX:-UsePerfData $JAVA_OPTS \
+    -cp "$DIR/busqueda.jar" $CLASE "$@"
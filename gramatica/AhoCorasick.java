@@ -0,0 +1,114 @@
+package gramatica;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// =============================================================
+// Clase AhoCorasick: todas las ocurrencias de varios patrones en una pasada
+// =============================================================
+// Se compila una vez por gramática (los patrones son los cuerpos de las
+// reglas) y después recorre cada forma en O(largo + ocurrencias). El
+// autómata es determinista: las transiciones de fallo ya están resueltas
+// en la tabla, indexada por el carácter compactado al alfabeto de los
+// patrones. Un carácter que no está en ningún patrón vuelve a la raíz.
+public class AhoCorasick {
+
+    // Recibe cada ocurrencia: patrón (índice en el arreglo dado) y posición de inicio
+    public interface Coincidencia {
+        void encontrada(int patron, int inicio);
+    }
+
+    private final int[] longitudes;       // por patrón
+    private final char[] alfabeto;        // caracteres de los patrones, ordenados
+    private int[][] siguiente;            // [nodo][símbolo] -> nodo
+    private int[] salida;                 // primer patrón que termina en el nodo, o -1
+    private int[] enlaceSalida;           // siguiente nodo por sufijo con salida, o -1
+    private int[] otroPatron;             // patrones repetidos: siguiente con el mismo texto
+    private int nodos;
+
+    public AhoCorasick(String[] patrones) {
+        longitudes = new int[patrones.length];
+        StringBuilder chars = new StringBuilder();
+        for (String p : patrones) chars.append(p);
+        char[] todos = chars.toString().toCharArray();
+        Arrays.sort(todos);
+        int n = 0;
+        for (int i = 0; i < todos.length; i++) if (i == 0 || todos[i] != todos[i - 1]) todos[n++] = todos[i];
+        alfabeto = Arrays.copyOf(todos, n);
+
+        int capacidad = 1;
+        for (String p : patrones) capacidad += p.length();
+        siguiente = new int[capacidad][alfabeto.length];
+        salida = new int[capacidad];
+        enlaceSalida = new int[capacidad];
+        otroPatron = new int[patrones.length];
+        Arrays.fill(salida, -1);
+        Arrays.fill(enlaceSalida, -1);
+        Arrays.fill(otroPatron, -1);
+        for (int[] fila : siguiente) Arrays.fill(fila, -1);
+        nodos = 1;
+
+        // Trie
+        for (int p = 0; p < patrones.length; p++) {
+            longitudes[p] = patrones[p].length();
+            if (patrones[p].isEmpty()) continue;   // el vacío no se busca
+            int nodo = 0;
+            for (char c : patrones[p].toCharArray()) {
+                int s = simbolo(c);
+                if (siguiente[nodo][s] < 0) siguiente[nodo][s] = nodos++;
+                nodo = siguiente[nodo][s];
+            }
+            otroPatron[p] = salida[nodo];
+            salida[nodo] = p;
+        }
+
+        // Fallos por anchura, completando la tabla de transiciones
+        int[] fallo = new int[nodos];
+        ArrayDeque<Integer> cola = new ArrayDeque<>();
+        for (int s = 0; s < alfabeto.length; s++) {
+            int hijo = siguiente[0][s];
+            if (hijo < 0) {
+                siguiente[0][s] = 0;
+            } else {
+                fallo[hijo] = 0;
+                cola.add(hijo);
+            }
+        }
+        while (!cola.isEmpty()) {
+            int nodo = cola.poll();
+            int f = fallo[nodo];
+            enlaceSalida[nodo] = salida[f] >= 0 ? f : enlaceSalida[f];
+            for (int s = 0; s < alfabeto.length; s++) {
+                int hijo = siguiente[nodo][s];
+                if (hijo < 0) {
+                    siguiente[nodo][s] = siguiente[f][s];
+                } else {
+                    fallo[hijo] = siguiente[f][s];
+                    cola.add(hijo);
+                }
+            }
+        }
+    }
+
+    // Informa cada ocurrencia de cada patrón en texto
+    public void buscar(String texto, Coincidencia salidaCoincidencias) {
+        int nodo = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            int s = simbolo(texto.charAt(i));
+            if (s < 0) {
+                nodo = 0;
+                continue;
+            }
+            nodo = siguiente[nodo][s];
+            for (int n = salida[nodo] >= 0 ? nodo : enlaceSalida[nodo]; n >= 0; n = enlaceSalida[n]) {
+                for (int p = salida[n]; p >= 0; p = otroPatron[p]) {
+                    salidaCoincidencias.encontrada(p, i + 1 - longitudes[p]);
+                }
+            }
+        }
+    }
+
+    private int simbolo(char c) {
+        return Arrays.binarySearch(alfabeto, c);
+    }
+}
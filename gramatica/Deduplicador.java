@@ -0,0 +1,222 @@
+package gramatica;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+// =============================================================
+// Clase Deduplicador: cadenas distintas con memoria acotada
+// =============================================================
+// Las cadenas se reparten por hash en PARTICIONES tablas, cada una con su
+// propio candado (los hilos de Enumerador casi nunca chocan). Cada tabla
+// es de direccionamiento abierto sobre una huella de 64 bits, con la
+// cadena y su cuenta en arreglos paralelos: la huella descarta casi todas
+// las comparaciones y no se crea ningún objeto por entrada. Si la memoria
+// estimada pasa de memoriaMaxima, las tablas más grandes se vuelcan
+// completas a un archivo propio y se vacían.
+//
+// Sin conteo, una cadena nueva en una partición que nunca se volcó se
+// puede emitir enseguida: agregar() devuelve true. En una partición ya
+// volcada no se sabe si la cadena estaba en el archivo, así que se
+// difiere. terminar() junta cada archivo con lo que quedó en memoria
+// (sumando cuentas y recordando qué ya se emitió) y emite lo pendiente.
+class Deduplicador {
+    static final int PARTICIONES = 64;
+    static final int BYTES_POR_ENTRADA = 88;    // String y casilleros de la tabla (aprox.)
+    static final long EMITIDA = Long.MIN_VALUE; // bit alto de la cuenta
+
+    final boolean conConteo;
+    final long memoriaMaxima;
+    final Path directorio;
+
+    private final Particion[] particiones = new Particion[PARTICIONES];
+    private final AtomicLong bytes = new AtomicLong();
+    private int volcados;
+
+    Deduplicador(boolean conConteo, long memoriaMaxima, Path directorio) {
+        this.conConteo = conConteo;
+        this.memoriaMaxima = memoriaMaxima;
+        this.directorio = directorio;
+        for (int i = 0; i < PARTICIONES; i++) particiones[i] = new Particion();
+    }
+
+    // Registra una aparición; true si la cadena es nueva y ya se puede emitir
+    boolean agregar(String cadena) throws IOException {
+        long h = huella(cadena);
+        Particion p = particiones[(int) (h >>> 58)];
+        boolean emitir;
+        synchronized (p) {
+            int i = p.buscar(h, cadena);
+            if (p.claves[i] != null) {
+                p.cuentas[i]++;
+                return false;
+            }
+            emitir = !conConteo && p.archivo == null;
+            p.poner(i, h, cadena, emitir ? EMITIDA | 1 : 1);
+            long b = BYTES_POR_ENTRADA + cadena.length();
+            p.bytes += b;
+            bytes.addAndGet(b);
+        }
+        if (bytes.get() > memoriaMaxima) volcar();
+        return emitir;
+    }
+
+    // Vuelca particiones, de la más grande a la más chica, hasta bajar a la mitad del límite
+    private synchronized void volcar() throws IOException {
+        while (bytes.get() > memoriaMaxima / 2) {
+            Particion mayor = null;
+            for (Particion p : particiones) if (mayor == null || p.bytes > mayor.bytes) mayor = p;
+            if (mayor.bytes == 0) return;
+            synchronized (mayor) {
+                if (mayor.archivo == null) {
+                    mayor.archivo = Files.createTempFile(directorio, "enumeracion", ".bin");
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(mayor.archivo, StandardOpenOption.APPEND), 1 << 16))) {
+                    for (int i = 0; i < mayor.claves.length; i++) {
+                        if (mayor.claves[i] == null) continue;
+                        byte[] b = mayor.claves[i].getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(b.length);
+                        out.write(b);
+                        out.writeLong(mayor.cuentas[i]);
+                    }
+                }
+                bytes.addAndGet(-mayor.bytes);
+                mayor.vaciar();
+                volcados++;
+            }
+        }
+    }
+
+    // Emite lo que quedó pendiente y borra los archivos; devuelve cuántas cadenas emitió
+    long terminar(SumideroCadenas sumidero) throws IOException {
+        long emitidas = 0;
+        for (Particion p : particiones) {
+            if (p.archivo != null) {
+                Particion memoria = p;
+                p = leer(p.archivo);
+                for (int i = 0; i < memoria.claves.length; i++) {
+                    if (memoria.claves[i] != null) p.sumar(memoria.huellas[i], memoria.claves[i], memoria.cuentas[i]);
+                }
+                Files.deleteIfExists(memoria.archivo);
+                memoria.archivo = null;
+                memoria.vaciar();
+            }
+            for (int i = 0; i < p.claves.length; i++) {
+                if (p.claves[i] == null || (p.cuentas[i] & EMITIDA) != 0) continue;
+                sumidero.cadena(p.claves[i], conConteo ? p.cuentas[i] : -1);
+                emitidas++;
+            }
+            p.vaciar();
+        }
+        bytes.set(0);
+        return emitidas;
+    }
+
+    private static Particion leer(Path archivo) throws IOException {
+        Particion p = new Particion();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo), 1 << 16))) {
+            while (true) {
+                int largo;
+                try {
+                    largo = in.readInt();
+                } catch (EOFException fin) {
+                    break;
+                }
+                byte[] b = new byte[largo];
+                in.readFully(b);
+                String cadena = new String(b, StandardCharsets.UTF_8);
+                p.sumar(huella(cadena), cadena, in.readLong());
+            }
+        }
+        return p;
+    }
+
+    // Hash de 64 bits (FNV-1a con mezcla final): 6 bits altos eligen la partición
+    static long huella(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Particiones que se volcaron a disco (una misma puede contar varias veces)
+    int getVolcados() {
+        return volcados;
+    }
+
+    // Tabla abierta con sondeo lineal; cuentas con el bit EMITIDA
+    private static final class Particion {
+        long[] huellas;
+        String[] claves;
+        long[] cuentas;
+        int n;
+        long bytes;
+        Path archivo;
+
+        Particion() {
+            vaciar();
+        }
+
+        void vaciar() {
+            huellas = new long[64];
+            claves = new String[64];
+            cuentas = new long[64];
+            n = 0;
+            bytes = 0;
+        }
+
+        // Casillero de la cadena, o el libre donde iría
+        int buscar(long h, String cadena) {
+            int mascara = huellas.length - 1;
+            int i = (int) h & mascara;
+            while (claves[i] != null && (huellas[i] != h || !claves[i].equals(cadena))) i = (i + 1) & mascara;
+            return i;
+        }
+
+        void poner(int i, long h, String cadena, long cuenta) {
+            huellas[i] = h;
+            claves[i] = cadena;
+            cuentas[i] = cuenta;
+            if (++n * 2 > huellas.length) crecer();
+        }
+
+        // Suma cuentas y une la marca de emitida
+        void sumar(long h, String cadena, long cuenta) {
+            int i = buscar(h, cadena);
+            if (claves[i] == null) {
+                poner(i, h, cadena, cuenta);
+            } else {
+                cuentas[i] = ((cuentas[i] & ~EMITIDA) + (cuenta & ~EMITIDA)) | ((cuentas[i] | cuenta) & EMITIDA);
+            }
+        }
+
+        private void crecer() {
+            long[] hs = huellas;
+            String[] cs = claves;
+            long[] ns = cuentas;
+            huellas = new long[hs.length * 2];
+            claves = new String[hs.length * 2];
+            cuentas = new long[hs.length * 2];
+            int mascara = huellas.length - 1;
+            for (int j = 0; j < hs.length; j++) {
+                if (cs[j] == null) continue;
+                int i = (int) hs[j] & mascara;
+                while (claves[i] != null) i = (i + 1) & mascara;
+                huellas[i] = hs[j];
+                claves[i] = cs[j];
+                cuentas[i] = ns[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package gramatica;
+
+import busqueda.Arbol;
+import busqueda.Buscador;
+import busqueda.FronteraDeque;
+import busqueda.FronteraPrioridad;
+import busqueda.Huellas;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import busqueda.Visitados;
+import busqueda.externa.BuscadorExterno;
+import busqueda.externa.CodecEstado;
+import busqueda.traza.EscritorTraza;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.Map;
+
+// =============================================================
+// Clase Derivador: arma el Buscador de derivaciones
+// =============================================================
+// Busca todas las derivaciones de estadoFinal hasta la profundidad
+// maxN. La frontera conserva el orden de la versión original, que
+// antepone los hijos a la lista y extrae por la izquierda (el primero)
+// o por la derecha (el último).
+//
+// buscar() y buscarExterno() compilan antes la gramática
+// (GramaticaCompilada): rechazan sin buscar los objetivos imposibles y,
+// si es libre de contexto, buscan sin símbolos inútiles. Quitar además
+// las reglas ε y unitarias junta derivaciones distintas, así que solo se
+// hace cuando basta una derivación (buscarExterno, mejor primero sin
+// todas); las derivaciones se devuelven con las reglas originales.
+// -Dgramatica.preprocesar=false busca con la gramática tal cual.
+//
+// -Dgramatica.motor elige el motor de buscar():
+//   ascendente     el Reductor parte de la cadena y reduce hasta el
+//                  inicial (ver buscarAscendente)
+//   mejor_primero  frontera por costo estimado (ver buscarMejorPrimero)
+//
+// -Dgramatica.visitados elige el conjunto de formas visitadas de los
+// motores descendente y mejor_primero (ver Visitados):
+//   exacto      las formas completas en un HashSet (por defecto)
+//   huellas     una huella de 64 bits por forma, fuera del heap
+//   aproximado  filtro de Bloom con tasa -Dgramatica.tasaFalsosPositivos
+//               (1e-6 por defecto); el Resultado sale marcado como poda
+//               aproximada porque podría faltar alguna derivación
+//
+// -Dbusqueda.traza=archivo vuelca el árbol de los motores descendente y
+// mejor_primero mientras buscan (ver busqueda.traza.EscritorTraza); las
+// formas y los números de regla son los de la gramática compilada.
+public class Derivador {
+    public static final int MAX_N = 25;
+    static final boolean PREPROCESAR = !"false".equals(System.getProperty("gramatica.preprocesar"));
+    static final String MOTOR = System.getProperty("gramatica.motor", "descendente");
+    static final String VISITADOS = System.getProperty("gramatica.visitados", "exacto");
+    static final double TASA_FALSOS_POSITIVOS =
+            Double.parseDouble(System.getProperty("gramatica.tasaFalsosPositivos", "1e-6"));
+
+    // Formas sentenciales como UTF-8 para la búsqueda externa
+    public static final CodecEstado<String> CODEC = new CodecEstado<String>() {
+        @Override
+        public byte[] codificar(String estado) {
+            return estado.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decodificar(byte[] datos) {
+            return new String(datos, StandardCharsets.UTF_8);
+        }
+    };
+
+    public static Buscador<String> crear(Map<String, List<Regla>> reglas, String metodo,
+                                         String estadoInicial, String estadoFinal) {
+        GeneraEstados generador = new GeneraEstados(reglas, metodo, estadoInicial, estadoFinal);
+        boolean izquierda = metodo.equals("izquierda");
+        Buscador<String> buscador = new Buscador<>(generador, new FronteraDeque(!izquierda, true), visitados());
+        buscador.nombre = "derivación " + metodo;
+        buscador.todas = true;    // se sigue buscando para detectar ambigüedad
+        buscador.profundidadMaxima = MAX_N;
+        return buscador;
+    }
+
+    public static Resultado<String> buscar(Map<String, List<Regla>> reglas, String metodo,
+                                           String estadoInicial, String estadoFinal,
+                                           int maxN, OyenteBusqueda oyente) {
+        return buscar(reglas, metodo, estadoInicial, estadoFinal, maxN, oyente, Presupuesto.ILIMITADO);
+    }
+
+    public static Resultado<String> buscar(Map<String, List<Regla>> reglas, String metodo,
+                                           String estadoInicial, String estadoFinal,
+                                           int maxN, OyenteBusqueda oyente, Presupuesto presupuesto) {
+        return buscar(compilar(reglas, estadoInicial, estadoFinal), MOTOR, metodo, estadoFinal,
+                maxN, oyente, presupuesto);
+    }
+
+    // Con la gramática ya compilada para estadoFinal (p.ej. guardada en un caché)
+    // y el motor elegido por el llamador: descendente, ascendente o mejor_primero
+    public static Resultado<String> buscar(GramaticaCompilada compilada, String motor, String metodo,
+                                           String estadoFinal, int maxN, OyenteBusqueda oyente,
+                                           Presupuesto presupuesto) {
+        if (compilada.getRechazo() != null) return sinDerivaciones();
+        if (motor.equals("ascendente")) {
+            return ascendente(compilada, metodo, estadoFinal, maxN, oyente, presupuesto);
+        }
+        if (motor.equals("mejor_primero")) {
+            return mejorPrimero(compilada, metodo, estadoFinal, maxN, true, oyente, presupuesto);
+        }
+        Buscador<String> buscador = crear(compilada.getReglas(), metodo, compilada.estadoInicial, estadoFinal);
+        buscador.profundidadMaxima = maxN;
+        buscador.oyente = oyente;
+        buscador.presupuesto = presupuesto;
+        return compilada.levantar(conTraza(buscador), metodo);
+    }
+
+    // Búsqueda ascendente (Reductor): mismas derivaciones por la izquierda o
+    // derecha, pero explorando solo formas que llevan a la cadena objetivo
+    public static Resultado<String> buscarAscendente(Map<String, List<Regla>> reglas, String metodo,
+                                                     String estadoInicial, String estadoFinal,
+                                                     int maxN, OyenteBusqueda oyente, Presupuesto presupuesto) {
+        GramaticaCompilada compilada = compilar(reglas, estadoInicial, estadoFinal);
+        if (compilada.getRechazo() != null) return sinDerivaciones();
+        return ascendente(compilada, metodo, estadoFinal, maxN, oyente, presupuesto);
+    }
+
+    private static Resultado<String> ascendente(GramaticaCompilada compilada, String metodo, String estadoFinal,
+                                                int maxN, OyenteBusqueda oyente, Presupuesto presupuesto) {
+        Reductor reductor = new Reductor(new GeneraEstados(compilada.getReglas(), metodo,
+                compilada.estadoInicial, estadoFinal));
+        reductor.profundidadMaxima = maxN;
+        reductor.oyente = oyente;
+        reductor.presupuesto = presupuesto;
+        return compilada.levantar(reductor.buscar(), metodo);
+    }
+
+    // Mejor primero: extrae la forma de menor costo según HeuristicaDerivacion
+    // y no encola las que ya no pueden dar la cadena. Con todas = false para
+    // en la primera derivación; con todas = true recorre lo mismo que la
+    // búsqueda en profundidad (menos lo podado), para el chequeo de ambigüedad.
+    public static Resultado<String> buscarMejorPrimero(Map<String, List<Regla>> reglas, String metodo,
+                                                       String estadoInicial, String estadoFinal, int maxN,
+                                                       boolean todas, OyenteBusqueda oyente,
+                                                       Presupuesto presupuesto) {
+        GramaticaCompilada compilada = compilar(reglas, estadoInicial, estadoFinal, todas);
+        if (compilada.getRechazo() != null) return sinDerivaciones();
+        return mejorPrimero(compilada, metodo, estadoFinal, maxN, todas, oyente, presupuesto);
+    }
+
+    private static Resultado<String> mejorPrimero(GramaticaCompilada compilada, String metodo, String estadoFinal,
+                                                  int maxN, boolean todas, OyenteBusqueda oyente,
+                                                  Presupuesto presupuesto) {
+        GeneraEstados generador = new GeneraEstados(compilada.getReglas(), metodo, compilada.estadoInicial,
+                estadoFinal);
+        HeuristicaDerivacion heuristica = new HeuristicaDerivacion(generador);
+        FronteraPrioridad frontera = new FronteraPrioridad();
+        Buscador<String> buscador = new Buscador<>(generador, frontera, visitados());
+        frontera.costo = nodo -> heuristica.costo(buscador.arbol().estado(nodo));
+        buscador.nombre = "derivación mejor primero " + metodo;
+        buscador.todas = todas;
+        buscador.profundidadMaxima = maxN;
+        buscador.oyente = oyente;
+        buscador.presupuesto = presupuesto;
+        return compilada.levantar(conTraza(buscador), metodo);
+    }
+
+    // BFS en disco (BuscadorExterno) para búsquedas profundas: da las derivaciones
+    // más cortas; cada forma se explora una sola vez, así que no sirve para
+    // decidir ambigüedad. directorio null = directorio temporal.
+    public static Resultado<String> buscarExterno(Map<String, List<Regla>> reglas, String metodo,
+                                                  String estadoInicial, String estadoFinal,
+                                                  int maxN, Presupuesto presupuesto, Path directorio) {
+        GramaticaCompilada compilada = compilar(reglas, estadoInicial, estadoFinal, false);
+        if (compilada.getRechazo() != null) return sinDerivaciones();
+
+        GeneraEstados generador = new GeneraEstados(compilada.getReglas(), metodo, estadoInicial, estadoFinal);
+        try {
+            if (directorio == null) directorio = Files.createTempDirectory("derivacion-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BuscadorExterno<String> buscador = new BuscadorExterno<>(generador, CODEC, directorio);
+        buscador.profundidadMaxima = maxN;
+        buscador.presupuesto = presupuesto;
+        return compilada.levantar(buscador.buscar(), metodo);
+    }
+
+    // Sin -Dbusqueda.traza la traza es null y la búsqueda no cambia
+    private static Resultado<String> conTraza(Buscador<String> buscador) {
+        try (EscritorTraza<String> traza = EscritorTraza.desdePropiedades(CODEC, forma -> forma)) {
+            buscador.traza = traza;
+            return buscador.buscar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Visitados<String> visitados() {
+        switch (VISITADOS) {
+            case "huellas": return Visitados.huellas(Huellas::de);
+            case "aproximado": return Visitados.aproximado(Huellas::de, TASA_FALSOS_POSITIVOS);
+            case "exacto": return Visitados.hash();
+            default: throw new IllegalArgumentException("gramatica.visitados desconocido: " + VISITADOS);
+        }
+    }
+
+    // Para buscar todas las derivaciones, como buscar(GramaticaCompilada, ...)
+    public static GramaticaCompilada compilar(Map<String, List<Regla>> reglas, String estadoInicial, String estadoFinal) {
+        return compilar(reglas, estadoInicial, estadoFinal, true);
+    }
+
+    // Sin preprocesar se usa una GramaticaCompilada que no cambia nada
+    static GramaticaCompilada compilar(Map<String, List<Regla>> reglas, String estadoInicial, String estadoFinal,
+                                       boolean todas) {
+        return PREPROCESAR ? GramaticaCompilada.compilar(reglas, estadoInicial, estadoFinal, todas)
+                           : GramaticaCompilada.sinCambios(reglas, estadoInicial);
+    }
+
+    private static Resultado<String> sinDerivaciones() {
+        return new Resultado<>(new Arbol<>(), new int[0], Resultado.Fin.COMPLETA, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,417 @@
+package gramatica;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+// =============================================================
+// Clase Enumerador: todas las cadenas del lenguaje hasta un largo
+// =============================================================
+// Si la gramática es libre de contexto se enumera sobre la gramática
+// compilada (GramaticaCompilada, sin reglas ε ni unitarias): cada símbolo
+// produce al menos un terminal, así que una forma con
+//   terminales fijados + mínimo que producen los pendientes > largo
+// ya no sirve y no se expande. La derivación es por la izquierda y en
+// profundidad, sobre un prefijo terminal y una pila de símbolos
+// pendientes (sin crear Strings hasta la hoja); cada hoja es una
+// derivación distinta.
+//
+// El trabajo se reparte por las primeras producciones: se abren las
+// formas del inicial nivel a nivel hasta tener varias semillas por hilo,
+// y cada semilla se deriva completa en un hilo del ForkJoinPool.
+//
+// Una cadena ambigua sale de varias hojas: Deduplicador la deja pasar
+// una sola vez (y, con conConteo, suma sus derivaciones). Las cuentas son
+// las de la gramática compilada: árboles de derivación distintos, sin
+// contar las distintas formas de derivar ε ni los ciclos unitarios.
+//
+// Con cabezas de varios símbolos se exige que ninguna regla acorte la
+// forma (si no, el largo no acota la búsqueda); se recorren las formas
+// en profundidad, como GeneraEstados, recordando las ya vistas; las
+// formas sin cabezas que aplicar que aún tienen no terminales (mayúsculas)
+// quedan trabadas y no se emiten. Ahí no se cuentan derivaciones.
+//
+// Uso: java gramatica.Enumerador gramatica.txt largo [salida] [-conteo] [-hilos n]
+public class Enumerador {
+    static final int SEMILLAS_POR_HILO = 8;
+    static final int NIVELES_SEMILLA = 4;
+    static final int LOTE = 1024;          // cadenas por hilo entre cada entrega al sumidero
+
+    final Map<String, List<Regla>> reglas;
+    final String estadoInicial;
+    final int largoMaximo;
+    final GramaticaCompilada compilada;
+    final boolean libreDeContexto;
+
+    public int hilos = Runtime.getRuntime().availableProcessors();
+    public boolean conConteo;
+    public long memoriaMaxima = 256L << 20;
+    public Path directorioTemporal = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    // Gramática compilada, por carácter
+    private final boolean[] noTerminal = new boolean[Character.MAX_VALUE + 1];
+    private final int[] minimo = new int[Character.MAX_VALUE + 1];
+    private final char[][][] cuerpos = new char[Character.MAX_VALUE + 1][][];
+    private final int[][] minimoCuerpo = new int[Character.MAX_VALUE + 1][];
+
+    private SumideroCadenas sumidero;
+    private Deduplicador deduplicador;
+    private final AtomicLong derivaciones = new AtomicLong();
+    private long cadenas;
+    private long nanos;
+
+    public Enumerador(Map<String, List<Regla>> reglas, String estadoInicial, int largoMaximo) {
+        this.reglas = reglas;
+        this.estadoInicial = estadoInicial;
+        this.largoMaximo = largoMaximo;
+        this.compilada = GramaticaCompilada.compilar(reglas, estadoInicial, null);
+        boolean libre = estadoInicial.length() == 1 && reglas.containsKey(estadoInicial);
+        for (String cabeza : reglas.keySet()) libre &= cabeza.length() == 1;
+        this.libreDeContexto = libre;
+        if (libre) prepararLibre();
+    }
+
+    private void prepararLibre() {
+        Arrays.fill(minimo, 1);
+        Map<String, List<Regla>> rs = compilada.getReglas();
+        for (Map.Entry<String, List<Regla>> e : rs.entrySet()) {
+            char a = e.getKey().charAt(0);
+            noTerminal[a] = true;
+            minimo[a] = Integer.MAX_VALUE / 4;
+            cuerpos[a] = new char[e.getValue().size()][];
+            minimoCuerpo[a] = new int[e.getValue().size()];
+            for (int r = 0; r < e.getValue().size(); r++) {
+                cuerpos[a][r] = GramaticaCompilada.cuerpo(e.getValue().get(r)).toCharArray();
+            }
+        }
+        // Mínimo de terminales por no terminal (punto fijo), como en HeuristicaDerivacion
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (String cabeza : rs.keySet()) {
+                char a = cabeza.charAt(0);
+                for (char[] cuerpo : cuerpos[a]) {
+                    long suma = 0;
+                    for (char c : cuerpo) suma += minimo[c];
+                    if (suma < minimo[a]) {
+                        minimo[a] = (int) suma;
+                        cambio = true;
+                    }
+                }
+            }
+        }
+        for (String cabeza : rs.keySet()) {
+            char a = cabeza.charAt(0);
+            for (int r = 0; r < cuerpos[a].length; r++) {
+                long suma = 0;
+                for (char c : cuerpos[a][r]) suma += minimo[c];
+                minimoCuerpo[a][r] = (int) Math.min(suma, Integer.MAX_VALUE / 4);
+            }
+        }
+    }
+
+    // Entrega al sumidero cada cadena distinta de largo <= largoMaximo; devuelve cuántas
+    public long enumerar(SumideroCadenas sumidero) throws IOException {
+        if (!libreDeContexto && !GeneraEstados.esNoContractiva(reglas)) {
+            throw new IllegalArgumentException("La enumeración requiere una gramática libre de contexto"
+                    + " o sin reglas que acorten la forma");
+        }
+        if (!libreDeContexto && conConteo) {
+            throw new IllegalArgumentException("El conteo de derivaciones requiere una gramática libre de contexto");
+        }
+        long t0 = System.nanoTime();
+        this.sumidero = sumidero;
+        this.deduplicador = new Deduplicador(conConteo, memoriaMaxima, directorioTemporal);
+        derivaciones.set(0);
+        cadenas = 0;
+        try {
+            if (!libreDeContexto) {
+                enumerarGeneral();
+            } else if (compilada.getRechazo() == null) {
+                if (compilada.generaVacia()) {
+                    // la gramática compilada ya no deriva ε: se agrega aparte
+                    Trabajador t = new Trabajador(new Semilla(new char[0], new char[0]));
+                    t.hoja();
+                    t.entregar();
+                }
+                enumerarLibre();
+            }
+            cadenas += deduplicador.terminar(this::entregar);
+        } finally {
+            this.sumidero = null;
+            nanos = System.nanoTime() - t0;
+        }
+        return cadenas;
+    }
+
+    // ---------------------------------------------------------
+    // Gramáticas libres de contexto
+    // ---------------------------------------------------------
+
+    private void enumerarLibre() throws IOException {
+        List<Semilla> semillas = semillas();
+        if (hilos <= 1) {
+            for (Semilla s : semillas) new Trabajador(s).ejecutar();
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            pool.submit(() -> semillas.parallelStream().forEach(s -> {
+                try {
+                    new Trabajador(s).ejecutar();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Enumeración interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Abre el no terminal de más a la izquierda de cada semilla, nivel a nivel,
+    // hasta tener SEMILLAS_POR_HILO por hilo (o no poder abrir más)
+    List<Semilla> semillas() {
+        List<Semilla> actuales = new ArrayList<>();
+        if (minimo[estadoInicial.charAt(0)] <= largoMaximo) {
+            actuales.add(new Semilla(new char[0], new char[]{estadoInicial.charAt(0)}));
+        }
+        for (int nivel = 0; nivel < NIVELES_SEMILLA && actuales.size() < SEMILLAS_POR_HILO * Math.max(1, hilos); nivel++) {
+            List<Semilla> siguientes = new ArrayList<>();
+            boolean abierta = false;
+            for (Semilla s : actuales) abierta |= abrir(s, siguientes);
+            actuales = siguientes;
+            if (!abierta) break;
+        }
+        return actuales;
+    }
+
+    private boolean abrir(Semilla s, List<Semilla> salida) {
+        // terminales del tope al prefijo
+        char[] prefijo = s.prefijo;
+        int tope = s.pila.length;
+        int n = 0;
+        while (tope - n > 0 && !noTerminal[s.pila[tope - 1 - n]]) n++;
+        if (n > 0) {
+            prefijo = Arrays.copyOf(prefijo, prefijo.length + n);
+            for (int i = 0; i < n; i++) prefijo[s.prefijo.length + i] = s.pila[tope - 1 - i];
+            tope -= n;
+        }
+        if (tope == 0) {
+            salida.add(new Semilla(prefijo, new char[0]));
+            return false;
+        }
+        char a = s.pila[tope - 1];
+        long pendiente = prefijo.length;
+        for (int i = 0; i < tope - 1; i++) pendiente += minimo[s.pila[i]];
+        for (int r = 0; r < cuerpos[a].length; r++) {
+            if (pendiente + minimoCuerpo[a][r] > largoMaximo) continue;
+            char[] cuerpo = cuerpos[a][r];
+            char[] pila = Arrays.copyOf(s.pila, tope - 1 + cuerpo.length);
+            for (int i = 0; i < cuerpo.length; i++) pila[tope - 1 + i] = cuerpo[cuerpo.length - 1 - i];
+            salida.add(new Semilla(prefijo, pila));
+        }
+        return true;
+    }
+
+    // Forma parcial: prefijo terminal fijado y pila de pendientes (el tope es el de más a la izquierda)
+    static final class Semilla {
+        final char[] prefijo;
+        final char[] pila;
+
+        Semilla(char[] prefijo, char[] pila) {
+            this.prefijo = prefijo;
+            this.pila = pila;
+        }
+    }
+
+    // =============================================================
+    // Derivación en profundidad de una semilla, con buffers propios
+    // =============================================================
+    final class Trabajador {
+        final char[] prefijo;
+        int largo;
+        final char[] pila;
+        int tope;
+        long pendiente;                  // mínimo que producen los símbolos de la pila
+        final List<String> lote = new ArrayList<>();
+        long hojas;
+
+        Trabajador(Semilla s) {
+            prefijo = Arrays.copyOf(s.prefijo, Math.max(largoMaximo, s.prefijo.length));
+            largo = s.prefijo.length;
+            pila = Arrays.copyOf(s.pila, Math.max(largoMaximo, s.pila.length) + 1);
+            tope = s.pila.length;
+            for (int i = 0; i < tope; i++) pendiente += minimo[pila[i]];
+        }
+
+        void ejecutar() throws IOException {
+            if (largo + pendiente <= largoMaximo) derivar();
+            entregar();
+        }
+
+        private void derivar() throws IOException {
+            if (tope == 0) {
+                hoja();
+                return;
+            }
+            char x = pila[--tope];
+            if (!noTerminal[x]) {
+                prefijo[largo++] = x;
+                pendiente--;
+                derivar();
+                pendiente++;
+                largo--;
+            } else {
+                pendiente -= minimo[x];
+                char[][] cs = cuerpos[x];
+                int[] ms = minimoCuerpo[x];
+                for (int r = 0; r < cs.length; r++) {
+                    if (largo + pendiente + ms[r] > largoMaximo) continue;
+                    char[] cuerpo = cs[r];
+                    for (int i = cuerpo.length - 1; i >= 0; i--) pila[tope++] = cuerpo[i];
+                    pendiente += ms[r];
+                    derivar();
+                    pendiente -= ms[r];
+                    tope -= cuerpo.length;
+                }
+                pendiente += minimo[x];
+            }
+            pila[tope++] = x;
+        }
+
+        void hoja() throws IOException {
+            hojas++;
+            String cadena = new String(prefijo, 0, largo);
+            if (deduplicador.agregar(cadena)) {
+                lote.add(cadena);
+                if (lote.size() >= LOTE) entregar();
+            }
+        }
+
+        void entregar() throws IOException {
+            derivaciones.addAndGet(hojas);
+            hojas = 0;
+            if (lote.isEmpty()) return;
+            synchronized (Enumerador.this) {
+                for (String c : lote) sumidero.cadena(c, -1);
+                cadenas += lote.size();
+            }
+            lote.clear();
+        }
+    }
+
+    private synchronized void entregar(String cadena, long cuenta) throws IOException {
+        sumidero.cadena(cadena, cuenta);
+    }
+
+    // ---------------------------------------------------------
+    // Gramáticas no contractivas con cabezas de varios símbolos
+    // ---------------------------------------------------------
+
+    private void enumerarGeneral() throws IOException {
+        GeneraEstados g = new GeneraEstados(reglas, "izquierda", estadoInicial, "");
+        Set<String> vistas = new HashSet<>();
+        ArrayDeque<String> pila = new ArrayDeque<>();
+        if (estadoInicial.length() <= largoMaximo) {
+            vistas.add(estadoInicial);
+            pila.push(estadoInicial);
+        }
+        while (!pila.isEmpty()) {
+            String forma = pila.pop();
+            long e = g.eleccion(forma);
+            if (e < 0) {
+                if (!esOracion(forma)) continue;   // forma trabada, no es del lenguaje
+                derivaciones.incrementAndGet();
+                if (deduplicador.agregar(forma)) {
+                    entregar(forma, -1);
+                    cadenas++;
+                }
+                continue;
+            }
+            int c = (int) (e >>> 32);
+            int posicion = (int) e;
+            String prefijo = forma.substring(0, posicion);
+            String sufijo = forma.substring(posicion + g.cabezas[c].length());
+            for (String cuerpo : g.cuerpos[c]) {
+                if (prefijo.length() + cuerpo.length() + sufijo.length() > largoMaximo) continue;
+                String hijo = prefijo + cuerpo + sufijo;
+                if (vistas.add(hijo)) pila.push(hijo);
+            }
+        }
+    }
+
+    // Sin cabezas que aplicar y sin no terminales: los de una cabeza de un solo
+    // símbolo y, como es costumbre en estas gramáticas, las mayúsculas
+    private boolean esOracion(String forma) {
+        for (int i = 0; i < forma.length(); i++) {
+            char c = forma.charAt(i);
+            if (Character.isUpperCase(c) || reglas.containsKey(String.valueOf(c))) return false;
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------
+    // Consultas
+    // ---------------------------------------------------------
+
+    // Hojas recorridas (derivaciones completas, con repetidas)
+    public long getDerivaciones() {
+        return derivaciones.get();
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getVolcados() {
+        return deduplicador == null ? 0 : deduplicador.getVolcados();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: java gramatica.Enumerador gramatica.txt largo [salida] [-conteo] [-hilos n]");
+            return;
+        }
+        Map<String, List<Regla>> reglas = GrammarParser.parseRules(Files.readAllLines(Paths.get(args[0])));
+        Enumerador enumerador = new Enumerador(reglas, "S", Integer.parseInt(args[1]));
+        Path salida = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("-conteo")) enumerador.conConteo = true;
+            else if (args[i].equals("-hilos")) enumerador.hilos = Integer.parseInt(args[++i]);
+            else salida = Paths.get(args[i]);
+        }
+        for (String linea : enumerador.compilada.getInforme()) System.out.println("# " + linea);
+
+        long n;
+        if (salida == null) {
+            n = enumerador.enumerar((cadena, cuenta) ->
+                    System.out.println((cadena.isEmpty() ? "ε" : cadena) + (cuenta >= 0 ? "\t" + cuenta : "")));
+        } else {
+            try (SalidaCadenas archivo = new SalidaCadenas(salida)) {
+                n = enumerador.enumerar(archivo);
+            }
+        }
+        double segundos = enumerador.getNanos() / 1e9;
+        System.out.println(String.format(Locale.ROOT, "# %d cadenas, %d derivaciones, %.3f s (%.0f derivaciones/s)",
+                n, enumerador.getDerivaciones(), segundos, enumerador.getDerivaciones() / Math.max(segundos, 1e-9)));
+    }
+}
@@ -0,0 +1,109 @@
+package gramatica;
+
+import busqueda.EspacioEstados;
+import busqueda.Sucesores;
+
+import java.util.List;
+import java.util.Map;
+
+// =============================================================
+// Clase GeneraEstados: espacio de formas sentenciales de una gramática
+// =============================================================
+// Cada forma se expande en la ocurrencia de cabeza más a la izquierda
+// o más a la derecha (según el método), aplicando todas sus reglas. La
+// operación de cada hijo es el número de regla aplicado.
+//
+// Si ninguna regla acorta la forma (cuerpo al menos tan largo como la
+// cabeza), una forma más larga que el estado final ya no puede llegar a
+// él: esos hijos no se generan.
+public class GeneraEstados implements EspacioEstados<String> {
+    final String[] cabezas;        // cabezas en el orden del mapa de reglas
+    final String[][] cuerpos;      // cuerpos por cabeza (ε ya convertido a "")
+    final int[][] numeros;         // número de regla por cuerpo
+    final boolean izquierda;
+    final String estadoInicial;
+    final String estadoFinal;
+    final int longitudMaxima;      // de las formas generadas
+
+    public GeneraEstados(Map<String, List<Regla>> reglas, String metodo, String estadoInicial, String estadoFinal) {
+        int n = reglas.size();
+        this.cabezas = new String[n];
+        this.cuerpos = new String[n][];
+        this.numeros = new int[n][];
+        int i = 0;
+        for (Map.Entry<String, List<Regla>> e : reglas.entrySet()) {
+            List<Regla> lista = e.getValue();
+            cabezas[i] = e.getKey();
+            cuerpos[i] = new String[lista.size()];
+            numeros[i] = new int[lista.size()];
+            for (int j = 0; j < lista.size(); j++) {
+                Regla r = lista.get(j);
+                cuerpos[i][j] = "ε".equals(r.produccion) ? "" : r.produccion; // soporta epsilon
+                numeros[i][j] = r.noRegla;
+            }
+            i++;
+        }
+        this.izquierda = metodo.equals("izquierda");
+        this.estadoInicial = estadoInicial;
+        this.estadoFinal = estadoFinal;
+        this.longitudMaxima = esNoContractiva(reglas) ? estadoFinal.length() : Integer.MAX_VALUE;
+    }
+
+    // Ninguna regla acorta la forma: |cuerpo| >= |cabeza| (ε cuenta como vacío)
+    public static boolean esNoContractiva(Map<String, List<Regla>> reglas) {
+        for (Map.Entry<String, List<Regla>> e : reglas.entrySet()) {
+            for (Regla r : e.getValue()) {
+                int largo = "ε".equals(r.produccion) ? 0 : r.produccion.length();
+                if (largo < e.getKey().length()) return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String inicial() {
+        return estadoInicial;
+    }
+
+    @Override
+    public boolean esMeta(String estado) {
+        return estado.equals(estadoFinal);
+    }
+
+    @Override
+    public void expandir(String cadena, Sucesores<String> salida) {
+        long e = eleccion(cadena);
+        // Si no hay ocurrencias, la cadena es completamente terminal
+        if (e < 0) return;
+        int elegida = (int) (e >>> 32);
+        int posicion = (int) e;
+
+        String prefijo = cadena.substring(0, posicion);
+        String sufijo = cadena.substring(posicion + cabezas[elegida].length());
+        int resto = prefijo.length() + sufijo.length();
+        for (int r = 0; r < cuerpos[elegida].length; r++) {
+            if (resto + cuerpos[elegida][r].length() > longitudMaxima) continue;
+            salida.agregar(prefijo + cuerpos[elegida][r] + sufijo, numeros[elegida][r]);
+        }
+    }
+
+    // Ocurrencia que se expande: la de menor (izquierda) o mayor (derecha)
+    // posición; en empate gana la primera cabeza del mapa. Devuelve
+    // (cabeza << 32) | posición, o -1 si la forma no tiene cabezas.
+    long eleccion(String cadena) {
+        int elegida = -1, posicion = -1;
+        for (int c = 0; c < cabezas.length; c++) {
+            int i = izquierda ? cadena.indexOf(cabezas[c]) : cadena.lastIndexOf(cabezas[c]);
+            if (i < 0) continue;
+            if (elegida < 0 || (izquierda ? i < posicion : i > posicion)) {
+                elegida = c;
+                posicion = i;
+            }
+        }
+        return elegida < 0 ? -1 : ((long) elegida << 32) | posicion;
+    }
+
+    public String getEstadoFinal() {
+        return estadoFinal;
+    }
+}
@@ -0,0 +1,457 @@
+package gramatica;
+
+import busqueda.Arbol;
+import busqueda.Resultado;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// =============================================================
+// Clase GramaticaCompilada: limpieza de la gramática antes de buscar
+// =============================================================
+// Cada carácter de una forma es un símbolo; son no terminales los que
+// aparecen como cabeza. Pasos:
+//
+//   1. Símbolos producibles: si la cadena objetivo tiene un carácter que
+//      no aparece en ninguna producción (ni en el estado inicial), no hay
+//      derivación y se rechaza sin buscar. Vale para cualquier gramática.
+//
+// Si la gramática es libre de contexto (todas las cabezas son de un solo
+// símbolo), el estado inicial es un no terminal y el objetivo es una
+// cadena terminal no vacía, además:
+//
+//   2. Se quitan los no terminales improductivos (no generan ninguna
+//      cadena terminal) y los inalcanzables desde el inicial.
+//   3. Se eliminan las reglas ε: cada regla se reemplaza por sus variantes
+//      sin alguna de las ocurrencias anulables (sin la variante vacía).
+//   4. Se eliminan las reglas unitarias A -> B, y con ellas los ciclos
+//      A -> B -> A: A hereda las reglas no unitarias de todo B alcanzable
+//      por cadenas unitarias.
+//
+// Los pasos 3 y 4 juntan derivaciones distintas (de cada anulable queda
+// un solo árbol ε y las cadenas unitarias se recorren una vez), así que
+// cambian cuántas derivaciones tiene el objetivo. compilar(..., true),
+// para buscar todas las derivaciones (chequeo de ambigüedad), se queda
+// en los pasos 1 y 2: las reglas quitadas no aparecen en ninguna
+// derivación de una cadena terminal y las demás conservan su número.
+//
+// Cada regla compilada recuerda la cadena de reglas originales (y qué
+// anulables omite), así que levantar() convierte una derivación de la
+// gramática compilada en el árbol de derivación original y la vuelve a
+// escribir por la izquierda o por la derecha con la numeración del
+// usuario. Las formas y reglas que imprime Utilidades.reconstruirCamino
+// son, por tanto, las de la gramática original.
+public class GramaticaCompilada {
+    static final int MAX_ANULABLES = 12;   // ocurrencias anulables por regla (2^n variantes)
+
+    final Map<String, List<Regla>> originales;
+    final String estadoInicial;
+    final Map<String, List<Regla>> reglas;        // las que usa la búsqueda
+    final boolean transformada;                   // reglas != originales
+    final boolean renumerada;                     // sin reglas ε ni unitarias: levantar() reescribe
+    final String rechazo;                         // null si el objetivo es posible
+    final List<String> informe = new ArrayList<>();
+
+    private boolean inicialImproductivo;
+    private final List<Variante[]> cadenas = new ArrayList<>();   // por número de regla compilada - 1
+    private final Map<Character, Regla> reglaNula = new HashMap<>();
+
+    private GramaticaCompilada(Map<String, List<Regla>> originales, String estadoInicial) {
+        this.originales = originales;
+        this.estadoInicial = estadoInicial;
+        this.reglas = originales;
+        this.transformada = false;
+        this.renumerada = false;
+        this.rechazo = null;
+    }
+
+    private GramaticaCompilada(Map<String, List<Regla>> originales, String estadoInicial, String estadoFinal,
+                               boolean todas) {
+        this.originales = originales;
+        this.estadoInicial = estadoInicial;
+
+        boolean libre = !originales.isEmpty() && estadoInicial.length() == 1
+                && (estadoFinal == null || !estadoFinal.isEmpty()) && originales.containsKey(estadoInicial);
+        for (String cabeza : originales.keySet()) libre &= cabeza.length() == 1;
+        for (int i = 0; libre && estadoFinal != null && i < estadoFinal.length(); i++) {
+            libre = !originales.containsKey(String.valueOf(estadoFinal.charAt(i)));
+        }
+
+        Map<String, List<Regla>> compiladas = libre ? compilarLibreDeContexto(!todas) : null;
+        this.transformada = compiladas != null;
+        this.renumerada = transformada && !todas;
+        this.reglas = transformada ? compiladas : originales;
+        this.rechazo = motivoRechazo(estadoFinal, libre);
+    }
+
+    // estadoFinal puede ser null: se compila sin objetivo (p.ej. para Enumerador)
+    public static GramaticaCompilada compilar(Map<String, List<Regla>> reglas, String estadoInicial,
+                                              String estadoFinal) {
+        return compilar(reglas, estadoInicial, estadoFinal, false);
+    }
+
+    // todas: se van a buscar todas las derivaciones; sin los pasos 3 y 4
+    public static GramaticaCompilada compilar(Map<String, List<Regla>> reglas, String estadoInicial,
+                                              String estadoFinal, boolean todas) {
+        return new GramaticaCompilada(reglas, estadoInicial, estadoFinal, todas);
+    }
+
+    // La gramática tal cual, sin comprobar nada
+    public static GramaticaCompilada sinCambios(Map<String, List<Regla>> reglas, String estadoInicial) {
+        return new GramaticaCompilada(reglas, estadoInicial);
+    }
+
+    // Reglas para la búsqueda (las originales si no hubo nada que cambiar)
+    public Map<String, List<Regla>> getReglas() {
+        return reglas;
+    }
+
+    // Motivo por el que el objetivo no se puede derivar, o null
+    public String getRechazo() {
+        return rechazo;
+    }
+
+    public boolean esTransformada() {
+        return transformada;
+    }
+
+    // Si la gramática es libre de contexto y el inicial deriva la cadena
+    // vacía (que la gramática compilada ya no genera). Solo sin todas.
+    public boolean generaVacia() {
+        return !estadoInicial.isEmpty() && reglaNula.containsKey(estadoInicial.charAt(0));
+    }
+
+    // Qué se quitó o se reescribió, una línea por cambio
+    public List<String> getInforme() {
+        return informe;
+    }
+
+    // ---------------------------------------------------------
+    // Compilación
+    // ---------------------------------------------------------
+
+    // Devuelve las reglas compiladas, o null si quedan iguales a las originales.
+    // Sin reescribir se queda en las reglas útiles (pasos 1 y 2).
+    private Map<String, List<Regla>> compilarLibreDeContexto(boolean reescribir) {
+        Set<Character> noTerminales = new HashSet<>();
+        for (String cabeza : originales.keySet()) noTerminales.add(cabeza.charAt(0));
+
+        // Productivos: algún cuerpo solo con terminales y productivos
+        Set<Character> productivos = new HashSet<>();
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (Map.Entry<String, List<Regla>> e : originales.entrySet()) {
+                char a = e.getKey().charAt(0);
+                if (productivos.contains(a)) continue;
+                for (Regla r : e.getValue()) {
+                    if (todosEn(cuerpo(r), noTerminales, productivos)) {
+                        productivos.add(a);
+                        cambio = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Reglas útiles: cabeza y cuerpo productivos, cabeza alcanzable
+        Map<Character, List<Regla>> utiles = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Regla>> e : originales.entrySet()) {
+            char a = e.getKey().charAt(0);
+            if (!productivos.contains(a)) {
+                informe.add("No terminal improductivo: " + a);
+                continue;
+            }
+            List<Regla> lista = new ArrayList<>();
+            for (Regla r : e.getValue()) {
+                if (todosEn(cuerpo(r), noTerminales, productivos)) lista.add(r);
+                else informe.add("Regla " + r.noRegla + " usa un símbolo improductivo");
+            }
+            utiles.put(a, lista);
+        }
+        Set<Character> alcanzables = alcanzables(utiles, estadoInicial.charAt(0));
+        for (Character a : new ArrayList<>(utiles.keySet())) {
+            if (!alcanzables.contains(a)) {
+                utiles.remove(a);
+                informe.add("No terminal inalcanzable: " + a);
+            }
+        }
+        if (!utiles.containsKey(estadoInicial.charAt(0))) {
+            // el inicial no genera nada: se deja la gramática y el rechazo lo dice
+            inicialImproductivo = true;
+            return null;
+        }
+        if (!reescribir) {
+            if (informe.isEmpty()) return null;
+            Map<String, List<Regla>> limpias = new LinkedHashMap<>();
+            for (Map.Entry<Character, List<Regla>> e : utiles.entrySet()) {
+                limpias.put(String.valueOf(e.getKey()), e.getValue());
+            }
+            return limpias;
+        }
+
+        // Anulables; reglaNula guarda, para cada uno, una regla cuyo cuerpo ya
+        // era anulable en la ronda anterior (el árbol ε resultante es finito)
+        Set<Character> anulables = new HashSet<>();
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            Set<Character> ronda = new HashSet<>(anulables);
+            for (Map.Entry<Character, List<Regla>> e : utiles.entrySet()) {
+                if (anulables.contains(e.getKey())) continue;
+                for (Regla r : e.getValue()) {
+                    if (todosAnulables(cuerpo(r), ronda)) {
+                        anulables.add(e.getKey());
+                        reglaNula.put(e.getKey(), r);
+                        cambio = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Variantes sin reglas ε
+        Map<Character, List<Variante>> variantes = new LinkedHashMap<>();
+        for (Map.Entry<Character, List<Regla>> e : utiles.entrySet()) {
+            List<Variante> lista = new ArrayList<>();
+            for (Regla r : e.getValue()) agregarVariantes(e.getKey(), r, anulables, lista);
+            variantes.put(e.getKey(), lista);
+        }
+        if (!anulables.isEmpty()) informe.add("Reglas ε eliminadas; anulables: " + anulables);
+
+        // Cierre unitario: por cada A, los B alcanzables por variantes unitarias
+        Map<String, List<Regla>> compiladas = new LinkedHashMap<>();
+        boolean unitarias = false;
+        for (Character a : variantes.keySet()) {
+            List<Regla> lista = new ArrayList<>();
+            Map<Character, List<Variante>> caminos = new LinkedHashMap<>();
+            caminos.put(a, new ArrayList<>());
+            ArrayDeque<Character> cola = new ArrayDeque<>();
+            cola.add(a);
+            while (!cola.isEmpty()) {
+                Character b = cola.poll();
+                for (Variante v : variantes.get(b)) {
+                    if (v.esUnitaria(utiles.keySet())) {
+                        unitarias = true;
+                        char c = v.resultado.charAt(0);
+                        if (caminos.containsKey(c)) continue;   // ciclo unitario o ya visto
+                        List<Variante> camino = new ArrayList<>(caminos.get(b));
+                        camino.add(v);
+                        caminos.put(c, camino);
+                        cola.add(c);
+                        continue;
+                    }
+                    Variante[] cadena = caminos.get(b).toArray(new Variante[0]);
+                    cadena = Arrays.copyOf(cadena, cadena.length + 1);
+                    cadena[cadena.length - 1] = v;
+                    cadenas.add(cadena);
+                    lista.add(new Regla(cadenas.size(), v.resultado));
+                }
+            }
+            compiladas.put(String.valueOf(a), lista);
+        }
+        if (unitarias) informe.add("Reglas unitarias eliminadas");
+
+        // Lo alcanzable puede cambiar sin las unitarias
+        Map<Character, List<Regla>> porSimbolo = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Regla>> e : compiladas.entrySet()) porSimbolo.put(e.getKey().charAt(0), e.getValue());
+        Set<Character> alcanzablesFinal = alcanzables(porSimbolo, estadoInicial.charAt(0));
+        compiladas.keySet().removeIf(cabeza -> !alcanzablesFinal.contains(cabeza.charAt(0)));
+
+        return informe.isEmpty() ? null : compiladas;
+    }
+
+    private void agregarVariantes(char cabeza, Regla r, Set<Character> anulables, List<Variante> salida) {
+        String cuerpo = cuerpo(r);
+        int[] posiciones = new int[cuerpo.length()];
+        int n = 0;
+        for (int i = 0; i < cuerpo.length(); i++) {
+            if (anulables.contains(cuerpo.charAt(i))) posiciones[n++] = i;
+        }
+        if (n > MAX_ANULABLES) {
+            throw new IllegalArgumentException("Regla " + r.noRegla + " con demasiados símbolos anulables");
+        }
+        for (int mascara = 0; mascara < (1 << n); mascara++) {
+            boolean[] omitir = new boolean[cuerpo.length()];
+            for (int j = 0; j < n; j++) omitir[posiciones[j]] = (mascara & (1 << j)) != 0;
+            StringBuilder resultado = new StringBuilder();
+            for (int i = 0; i < cuerpo.length(); i++) if (!omitir[i]) resultado.append(cuerpo.charAt(i));
+            if (resultado.length() == 0) continue;   // la variante vacía es la regla ε
+            salida.add(new Variante(cabeza, r, omitir, resultado.toString()));
+        }
+    }
+
+    private String motivoRechazo(String estadoFinal, boolean libre) {
+        if (inicialImproductivo) {
+            return "El símbolo inicial " + estadoInicial + " no genera ninguna cadena terminal";
+        }
+        if (estadoFinal == null) return null;
+        Set<Character> producibles = new HashSet<>();
+        if (!libre) for (char c : estadoInicial.toCharArray()) producibles.add(c);
+        for (List<Regla> lista : reglas.values()) {
+            for (Regla r : lista) for (char c : cuerpo(r).toCharArray()) producibles.add(c);
+        }
+        for (char c : estadoFinal.toCharArray()) {
+            if (!producibles.contains(c)) return "Ninguna producción genera el símbolo '" + c + "'";
+        }
+        return null;
+    }
+
+    private static Set<Character> alcanzables(Map<Character, List<Regla>> reglas, char inicial) {
+        Set<Character> vistos = new HashSet<>();
+        ArrayDeque<Character> cola = new ArrayDeque<>();
+        vistos.add(inicial);
+        cola.add(inicial);
+        while (!cola.isEmpty()) {
+            List<Regla> lista = reglas.get(cola.poll());
+            if (lista == null) continue;
+            for (Regla r : lista) {
+                for (char c : cuerpo(r).toCharArray()) {
+                    if (reglas.containsKey(c) && vistos.add(c)) cola.add(c);
+                }
+            }
+        }
+        return vistos;
+    }
+
+    private static boolean todosEn(String cuerpo, Set<Character> noTerminales, Set<Character> productivos) {
+        for (char c : cuerpo.toCharArray()) {
+            if (noTerminales.contains(c) && !productivos.contains(c)) return false;
+        }
+        return true;
+    }
+
+    private static boolean todosAnulables(String cuerpo, Set<Character> anulables) {
+        for (char c : cuerpo.toCharArray()) if (!anulables.contains(c)) return false;
+        return true;
+    }
+
+    static String cuerpo(Regla r) {
+        return "ε".equals(r.produccion) ? "" : r.produccion;
+    }
+
+    // ---------------------------------------------------------
+    // Vuelta a la gramática original
+    // ---------------------------------------------------------
+
+    // Reescribe las derivaciones de un Resultado de la gramática compilada con
+    // las reglas originales. metodo: "izquierda" o "derecha", como en la búsqueda.
+    public Resultado<String> levantar(Resultado<String> compilado, String metodo) {
+        if (!renumerada) return compilado;
+        boolean izquierda = metodo.equals("izquierda");
+        Arbol<String> arbol = new Arbol<>();
+        int[] soluciones = new int[compilado.cantidad()];
+        for (int i = 0; i < soluciones.length; i++) {
+            Nodo raiz = arbolDerivacion(compilado.operaciones(i), izquierda);
+            soluciones[i] = escribir(raiz, izquierda, arbol);
+        }
+        return new Resultado<>(arbol, soluciones, compilado.getFin(), compilado.getExpandidos(),
+                compilado.getGenerados(), compilado.getVisitados(), compilado.getProfundidadAlcanzada(),
+                compilado.getNanos(), compilado.esPodaAproximada());
+    }
+
+    // Árbol de derivación original a partir de las reglas compiladas aplicadas
+    private Nodo arbolDerivacion(int[] ops, boolean izquierda) {
+        Nodo raiz = new Nodo(estadoInicial.charAt(0));
+        List<Nodo> pendientes = new ArrayList<>();   // no terminales hoja, de izquierda a derecha
+        pendientes.add(raiz);
+        for (int op : ops) {
+            int i = izquierda ? 0 : pendientes.size() - 1;
+            Nodo actual = pendientes.remove(i);
+            List<Nodo> nuevos = new ArrayList<>();
+            for (Variante v : cadenas.get(op - 1)) {
+                actual.regla = v.regla.noRegla;
+                actual.hijos = new ArrayList<>();
+                nuevos.clear();
+                String cuerpo = cuerpo(v.regla);
+                for (int j = 0; j < cuerpo.length(); j++) {
+                    char c = cuerpo.charAt(j);
+                    Nodo hijo = v.omitir[j] ? arbolNulo(c) : new Nodo(c);
+                    actual.hijos.add(hijo);
+                    if (!v.omitir[j] && reglasDe(c)) nuevos.add(hijo);
+                }
+                if (!nuevos.isEmpty()) actual = nuevos.get(0);   // en las unitarias, el único que queda
+            }
+            pendientes.addAll(i, nuevos);
+        }
+        return raiz;
+    }
+
+    private Nodo arbolNulo(char a) {
+        Nodo n = new Nodo(a);
+        Regla r = reglaNula.get(a);
+        n.regla = r.noRegla;
+        n.hijos = new ArrayList<>();
+        for (char c : cuerpo(r).toCharArray()) n.hijos.add(arbolNulo(c));
+        return n;
+    }
+
+    private boolean reglasDe(char c) {
+        return originales.containsKey(String.valueOf(c));
+    }
+
+    // Recorre el árbol expandiendo siempre el no terminal de más a la izquierda
+    // (o derecha) y agrega las formas al Arbol; devuelve el nodo final
+    private static int escribir(Nodo raiz, boolean izquierda, Arbol<String> arbol) {
+        List<Nodo> forma = new ArrayList<>();
+        forma.add(raiz);
+        int nodo = arbol.agregar(texto(forma), -1, -1);
+        while (true) {
+            int elegido = -1;
+            for (int i = 0; i < forma.size(); i++) {
+                int j = izquierda ? i : forma.size() - 1 - i;
+                if (forma.get(j).hijos != null) {
+                    elegido = j;
+                    break;
+                }
+            }
+            if (elegido < 0) return nodo;
+            Nodo n = forma.remove(elegido);
+            forma.addAll(elegido, n.hijos);
+            nodo = arbol.agregar(texto(forma), nodo, n.regla);
+        }
+    }
+
+    private static String texto(List<Nodo> forma) {
+        StringBuilder sb = new StringBuilder(forma.size());
+        for (Nodo n : forma) sb.append(n.simbolo);
+        return sb.toString();
+    }
+
+    // =============================================================
+    // Regla original con algunas ocurrencias anulables omitidas
+    // =============================================================
+    private static final class Variante {
+        final char cabeza;
+        final Regla regla;
+        final boolean[] omitir;
+        final String resultado;
+
+        Variante(char cabeza, Regla regla, boolean[] omitir, String resultado) {
+            this.cabeza = cabeza;
+            this.regla = regla;
+            this.omitir = omitir;
+            this.resultado = resultado;
+        }
+
+        boolean esUnitaria(Set<Character> noTerminales) {
+            return resultado.length() == 1 && noTerminales.contains(resultado.charAt(0));
+        }
+    }
+
+    // Nodo del árbol de derivación: hijos == null si no se expandió
+    private static final class Nodo {
+        final char simbolo;
+        int regla = -1;
+        List<Nodo> hijos;
+
+        Nodo(char simbolo) {
+            this.simbolo = simbolo;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package gramatica;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// =============================================================
+// Parser de gramáticas
+// =============================================================
+public class GrammarParser {
+    // Formato esperado: "1. S -> AA"
+    // Cabeceras y cuerpos pueden ser cadenas (p.ej., "aaA"). Epsilon con "ε".
+    public static Map<String, List<Regla>> parseRules(List<String> lines) throws IOException {
+        Map<String, List<Regla>> mapa = new LinkedHashMap<>();
+
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty()) continue;
+            // quita comentarios simples si quieres (opcional)
+            // if (line.startsWith("#")) continue;
+
+            // separar índice
+            int dotIdx = line.indexOf('.');
+            if (dotIdx <= 0) continue; // línea inválida, se ignora
+            String numStr = line.substring(0, dotIdx).trim();
+
+            // cabeza y cuerpo
+            String rest = line.substring(dotIdx + 1).trim(); // "S -> AA"
+            int arrow = rest.indexOf("->");
+            if (arrow < 0) continue;
+
+            String head = rest.substring(0, arrow).trim();   // "S"
+            String body = rest.substring(arrow + 2).trim();  // "AA"
+
+            int num;
+            try { num = Integer.parseInt(numStr); }
+            catch (NumberFormatException e) { continue; }
+
+            // guarda
+            mapa.computeIfAbsent(head, k -> new ArrayList<>())
+                .add(new Regla(num, body));
+        }
+        // ordena reglas por número de regla, para reproducibilidad
+        for (List<Regla> l : mapa.values()) {
+            l.sort(Comparator.comparingInt(r -> r.noRegla));
+        }
+        return mapa;
+    }
+}
@@ -0,0 +1,98 @@
+package gramatica;
+
+import java.util.Arrays;
+
+// =============================================================
+// Clase HeuristicaDerivacion: costo estimado de una forma hasta el objetivo
+// =============================================================
+// Para la búsqueda de mejor primero (FronteraPrioridad). Si la gramática
+// es libre de contexto (cabezas de un solo símbolo), en una forma
+//   prefijo terminal · resto · sufijo terminal
+// el prefijo y el sufijo ya no cambian, y cada no terminal A producirá al
+// menos minimo[A] terminales. Entonces:
+//   - si el prefijo o el sufijo no coinciden con el objetivo, o el mínimo
+//     que producirá la forma supera su largo, la forma está muerta (-1);
+//   - si no, costo = terminales del objetivo aún sin fijar
+//                    + no terminales pendientes.
+// Con cabezas de varios símbolos nada de eso es seguro: el costo es solo
+// lo que falta del objetivo fuera del prefijo y el sufijo comunes, y
+// nunca se descarta una forma.
+public class HeuristicaDerivacion {
+    private static final int INFINITO = Integer.MAX_VALUE / 4;
+
+    final String objetivo;
+    final boolean libreDeContexto;
+    private final boolean[] noTerminal = new boolean[Character.MAX_VALUE + 1];
+    private final int[] minimo = new int[Character.MAX_VALUE + 1];   // terminales: 1
+
+    public HeuristicaDerivacion(GeneraEstados gramatica) {
+        this.objetivo = gramatica.estadoFinal;
+        boolean libre = true;
+        for (String c : gramatica.cabezas) libre &= c.length() == 1;
+        this.libreDeContexto = libre;
+        if (libre) calcularMinimos(gramatica);
+    }
+
+    // Menor número de terminales que deriva cada no terminal (punto fijo)
+    private void calcularMinimos(GeneraEstados g) {
+        Arrays.fill(minimo, 1);
+        for (String c : g.cabezas) {
+            noTerminal[c.charAt(0)] = true;
+            minimo[c.charAt(0)] = INFINITO;
+        }
+        for (boolean cambio = true; cambio; ) {
+            cambio = false;
+            for (int c = 0; c < g.cabezas.length; c++) {
+                char a = g.cabezas[c].charAt(0);
+                for (String cuerpo : g.cuerpos[c]) {
+                    long suma = 0;
+                    for (int i = 0; i < cuerpo.length(); i++) suma += minimo[cuerpo.charAt(i)];
+                    if (suma < minimo[a]) {
+                        minimo[a] = (int) suma;
+                        cambio = true;
+                    }
+                }
+            }
+        }
+    }
+
+    // Costo estimado; -1 si la forma no puede llegar al objetivo
+    public long costo(String forma) {
+        return libreDeContexto ? costoLibre(forma) : costoGeneral(forma);
+    }
+
+    private long costoLibre(String forma) {
+        int primero = -1, ultimo = -1, pendientes = 0;
+        long produce = 0;
+        for (int i = 0; i < forma.length(); i++) {
+            char c = forma.charAt(i);
+            produce += minimo[c];
+            if (noTerminal[c]) {
+                if (primero < 0) primero = i;
+                ultimo = i;
+                pendientes++;
+            }
+        }
+        if (produce > objetivo.length()) return -1;
+        if (pendientes == 0) return forma.equals(objetivo) ? 0 : -1;
+
+        // Prefijo y sufijo terminales: ya no cambian
+        if (!objetivo.startsWith(forma.substring(0, primero))) return -1;
+        if (!objetivo.endsWith(forma.substring(ultimo + 1))) return -1;
+        int libres = objetivo.length() - primero - (forma.length() - 1 - ultimo);
+        if (libres < 0) return -1;
+        return libres + pendientes;
+    }
+
+    private long costoGeneral(String forma) {
+        int limite = Math.min(forma.length(), objetivo.length());
+        int prefijo = 0;
+        while (prefijo < limite && forma.charAt(prefijo) == objetivo.charAt(prefijo)) prefijo++;
+        int sufijo = 0;
+        while (sufijo < limite - prefijo
+                && forma.charAt(forma.length() - 1 - sufijo) == objetivo.charAt(objetivo.length() - 1 - sufijo)) {
+            sufijo++;
+        }
+        return objetivo.length() - prefijo - sufijo + Math.abs(forma.length() - objetivo.length());
+    }
+}
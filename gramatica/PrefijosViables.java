@@ -0,0 +1,118 @@
+package gramatica;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// =============================================================
+// Clase PrefijosViables: autómata LR(0) de una gramática libre de contexto
+// =============================================================
+// En una derivación por la derecha, cada forma δβ (β solo terminales,
+// δ hasta el último no terminal) tiene a δ como prefijo viable: el
+// cuerpo aplicado en el último paso termina en δ o más allá. Los
+// prefijos viables son un lenguaje regular, el del autómata de ítems
+// LR(0) con la regla aumentada S' -> inicial. Por la izquierda es lo
+// mismo con los cuerpos y la forma al revés.
+//
+// Los estados (conjuntos de ítems) se crean a medida que aparecen, así
+// que solo se construye la parte del autómata que recorren las formas.
+class PrefijosViables {
+    private final String[] cuerpos;          // 0 = inicial; al revés si es por la izquierda
+    private final int[] desplazamiento;      // ítem (cuerpo b, punto k) = desplazamiento[b] + k
+    private final Map<Character, List<Integer>> cuerposDe = new HashMap<>();
+    private final boolean izquierda;
+
+    private final List<BitSet> estados = new ArrayList<>();
+    private final Map<BitSet, Integer> indices = new HashMap<>();
+    private final Map<Long, Integer> transiciones = new HashMap<>();   // (estado << 16) | símbolo -> estado o -1
+
+    PrefijosViables(GeneraEstados gramatica) {
+        this.izquierda = gramatica.izquierda;
+        List<String> lista = new ArrayList<>();
+        lista.add(orientar(gramatica.estadoInicial));
+        for (int c = 0; c < gramatica.cabezas.length; c++) {
+            for (String cuerpo : gramatica.cuerpos[c]) {
+                cuerposDe.computeIfAbsent(gramatica.cabezas[c].charAt(0), k -> new ArrayList<>()).add(lista.size());
+                lista.add(orientar(cuerpo));
+            }
+        }
+        cuerpos = lista.toArray(new String[0]);
+        desplazamiento = new int[cuerpos.length];
+        for (int b = 1; b < cuerpos.length; b++) desplazamiento[b] = desplazamiento[b - 1] + cuerpos[b - 1].length() + 1;
+
+        BitSet inicio = new BitSet();
+        inicio.set(0);
+        estado(cerrar(inicio));
+    }
+
+    // forma es viable con su no terminal elegido en posicion (el último, o el
+    // primero si es por la izquierda)
+    boolean viable(String forma, int posicion) {
+        int e = 0;
+        if (izquierda) {
+            for (int i = forma.length() - 1; i >= posicion && e >= 0; i--) e = mover(e, forma.charAt(i));
+        } else {
+            for (int i = 0; i <= posicion && e >= 0; i++) e = mover(e, forma.charAt(i));
+        }
+        return e >= 0;
+    }
+
+    private String orientar(String cuerpo) {
+        return izquierda ? new StringBuilder(cuerpo).reverse().toString() : cuerpo;
+    }
+
+    private int mover(int e, char c) {
+        long clave = ((long) e << 16) | c;
+        Integer destino = transiciones.get(clave);
+        if (destino != null) return destino;
+        BitSet items = estados.get(e);
+        BitSet avance = new BitSet();
+        for (int b = 0; b < cuerpos.length; b++) {
+            String cuerpo = cuerpos[b];
+            for (int k = 0; k < cuerpo.length(); k++) {
+                if (cuerpo.charAt(k) == c && items.get(desplazamiento[b] + k)) avance.set(desplazamiento[b] + k + 1);
+            }
+        }
+        int d = avance.isEmpty() ? -1 : estado(cerrar(avance));
+        transiciones.put(clave, d);
+        return d;
+    }
+
+    // Agrega los ítems iniciales de cada no terminal que sigue a un punto
+    private BitSet cerrar(BitSet items) {
+        ArrayDeque<Integer> pendientes = new ArrayDeque<>();
+        for (int i = items.nextSetBit(0); i >= 0; i = items.nextSetBit(i + 1)) pendientes.add(i);
+        while (!pendientes.isEmpty()) {
+            int item = pendientes.poll();
+            int b = cuerpoDe(item);
+            int k = item - desplazamiento[b];
+            if (k == cuerpos[b].length()) continue;
+            List<Integer> alternativas = cuerposDe.get(cuerpos[b].charAt(k));
+            if (alternativas == null) continue;
+            for (int a : alternativas) {
+                if (!items.get(desplazamiento[a])) {
+                    items.set(desplazamiento[a]);
+                    pendientes.add(desplazamiento[a]);
+                }
+            }
+        }
+        return items;
+    }
+
+    private int cuerpoDe(int item) {
+        int b = Arrays.binarySearch(desplazamiento, item);
+        return b >= 0 ? b : -b - 2;
+    }
+
+    private int estado(BitSet items) {
+        Integer i = indices.get(items);
+        if (i != null) return i;
+        estados.add(items);
+        indices.put(items, estados.size() - 1);
+        return estados.size() - 1;
+    }
+}
@@ -0,0 +1,256 @@
+package gramatica;
+
+import busqueda.Arbol;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// =============================================================
+// Clase Reductor: búsqueda ascendente desde la cadena objetivo
+// =============================================================
+// En lugar de derivar desde el inicial, parte del estado final y aplica
+// las reglas al revés: cada ocurrencia de un cuerpo en la forma se
+// reemplaza por su cabeza, hasta llegar al estado inicial. Los cuerpos se
+// buscan todos a la vez con un autómata Aho-Corasick compilado una vez
+// por gramática.
+//
+// Solo se aceptan las reducciones que la búsqueda descendente haría al
+// revés: en la forma reducida, la ocurrencia que GeneraEstados expandiría
+// (la de más a la izquierda o a la derecha) tiene que ser justo la cabeza
+// recién puesta. Así cada camino encontrado es una derivación por la
+// izquierda (o derecha) y se imprime igual que las de Buscador.
+//
+// La búsqueda es en profundidad y no descarta formas ya vistas (dos
+// caminos por la misma forma son dos derivaciones distintas, lo que
+// importa para la ambigüedad). Lo que sí recuerda son las formas muertas:
+// las que se exploraron por completo sin llegar al inicial, sin cortes por
+// profundidad ni por ciclos. Una forma muerta no se vuelve a expandir.
+//
+// Una regla ε al revés inserta su cabeza en cualquier posición, así que
+// con la gramática sin compilar el árbol crece sin control. Tres cotas lo
+// frenan sin perder derivaciones:
+//   - solo se insertan cabezas con algún símbolo que aparezca en un
+//     cuerpo no vacío o en el inicial; si no, no habría cómo quitarlas;
+//   - si la gramática es libre de contexto, cada forma reducida tiene
+//     que empezar (por la izquierda, terminar) en un prefijo viable
+//     (PrefijosViables); las que no, no aparecen en ninguna derivación
+//     desde el inicial;
+//   - una forma se descarta (como corte, no como muerta) si es tan larga
+//     que ni acortándose lo más posible en cada paso que queda llegaría
+//     al largo del inicial.
+// profundidadMaxima cuenta como en Buscador: se reduce hasta esa
+// profundidad, así que las derivaciones miden a lo sumo una más.
+public class Reductor {
+    static final int VIVA = 0;         // llega al inicial
+    static final int MUERTA = 1;       // no llega, exploración completa
+    static final int INCIERTA = 2;     // no llegó, pero hubo cortes
+
+    final GeneraEstados gramatica;
+    final AhoCorasick matcher;
+    final int[] cabezaPatron;          // por patrón: índice de cabeza en GeneraEstados
+    final int[] reglaPatron;           // por patrón: número de regla
+    final int[] largoPatron;           // por patrón: largo del cuerpo
+    final int[][] reglasVacias;        // {cabeza, regla} de las reglas ε que se pueden deshacer
+    final PrefijosViables viables;     // null si la gramática no es libre de contexto
+    final int maxAcorte;               // lo más que acorta la forma una reducción
+
+    public boolean todas = true;
+    public int profundidadMaxima = Derivador.MAX_N;
+    public OyenteBusqueda oyente = OyenteBusqueda.NULO;
+    public Presupuesto presupuesto = Presupuesto.ILIMITADO;
+
+    private Set<String> muertas;
+    private Set<String> enCamino;
+    private String[] formas;           // formas[0] = objetivo, formas[d] = reducida d veces
+    private int[] reglas;              // reglas[d]: formas[d + 1] -> formas[d]
+    private Arbol<String> arbol;
+    private int[] soluciones;
+    private int nSoluciones;
+
+    private long expandidos;
+    private long generados;
+    private long bytesMuertas;
+    private int profundidadAlcanzada;
+    private long t0;
+    private boolean conPlazo;
+    private boolean medir;
+    private Resultado.Fin fin;
+
+    public Reductor(GeneraEstados gramatica) {
+        this.gramatica = gramatica;
+        List<String> patrones = new ArrayList<>();
+        List<int[]> datos = new ArrayList<>();
+        List<int[]> vacias = new ArrayList<>();
+        Set<Character> quitables = new HashSet<>();
+        for (char c : gramatica.estadoInicial.toCharArray()) quitables.add(c);
+        int acorte = 0;
+        for (int c = 0; c < gramatica.cabezas.length; c++) {
+            for (int r = 0; r < gramatica.cuerpos[c].length; r++) {
+                String cuerpo = gramatica.cuerpos[c][r];
+                acorte = Math.max(acorte, cuerpo.length() - gramatica.cabezas[c].length());
+                if (cuerpo.isEmpty()) {
+                    vacias.add(new int[]{c, gramatica.numeros[c][r]});
+                } else {
+                    patrones.add(cuerpo);
+                    datos.add(new int[]{c, gramatica.numeros[c][r]});
+                    for (char ch : cuerpo.toCharArray()) quitables.add(ch);
+                }
+            }
+        }
+        vacias.removeIf(v -> {
+            for (char ch : gramatica.cabezas[v[0]].toCharArray()) if (quitables.contains(ch)) return false;
+            return true;
+        });
+        this.maxAcorte = acorte;
+        boolean libre = true;
+        for (String cabeza : gramatica.cabezas) libre &= cabeza.length() == 1;
+        this.viables = libre ? new PrefijosViables(gramatica) : null;
+        this.matcher = new AhoCorasick(patrones.toArray(new String[0]));
+        this.cabezaPatron = new int[datos.size()];
+        this.reglaPatron = new int[datos.size()];
+        this.largoPatron = new int[datos.size()];
+        for (int p = 0; p < datos.size(); p++) {
+            cabezaPatron[p] = datos.get(p)[0];
+            reglaPatron[p] = datos.get(p)[1];
+            largoPatron[p] = patrones.get(p).length();
+        }
+        this.reglasVacias = vacias.toArray(new int[0][]);
+    }
+
+    public Resultado<String> buscar() {
+        muertas = new HashSet<>();
+        enCamino = new HashSet<>();
+        formas = new String[profundidadMaxima + 2];
+        reglas = new int[profundidadMaxima + 2];
+        arbol = new Arbol<>();
+        soluciones = new int[4];
+        nSoluciones = 0;
+        expandidos = 0;
+        generados = 0;
+        bytesMuertas = 0;
+        profundidadAlcanzada = 0;
+        fin = Resultado.Fin.COMPLETA;
+        conPlazo = presupuesto.tiempoNanos != Long.MAX_VALUE;
+        medir = oyente != OyenteBusqueda.NULO;
+        if (medir) oyente.inicio("derivación ascendente " + (gramatica.izquierda ? "izquierda" : "derecha"));
+        t0 = System.nanoTime();
+
+        reducir(gramatica.estadoFinal, 0);
+
+        long nanos = System.nanoTime() - t0;
+        if (medir) oyente.fin();
+        return new Resultado<>(arbol, Arrays.copyOf(soluciones, nSoluciones), fin,
+                expandidos, generados, muertas.size(), profundidadAlcanzada, nanos);
+    }
+
+    private int reducir(String forma, int d) {
+        formas[d] = forma;
+        if (forma.equals(gramatica.estadoInicial)) {
+            registrar(d);
+            return VIVA;
+        }
+        if (muertas.contains(forma)) {
+            if (medir) oyente.duplicadoVisitados();
+            return MUERTA;
+        }
+        if (d > profundidadMaxima || demasiadoLarga(forma, d) || !enCamino.add(forma)) return INCIERTA;
+        if (agotado()) {
+            enCamino.remove(forma);
+            return INCIERTA;
+        }
+
+        List<Reduccion> hijos = reducciones(forma, d);
+        int estado = MUERTA;
+        for (int i = 0; i < hijos.size() && fin == Resultado.Fin.COMPLETA; i++) {
+            if (!todas && nSoluciones > 0) break;
+            reglas[d] = hijos.get(i).regla;
+            int r = reducir(hijos.get(i).forma, d + 1);
+            if (r == VIVA) {
+                estado = VIVA;
+            } else if (r == INCIERTA && estado == MUERTA) {
+                estado = INCIERTA;
+            }
+        }
+        enCamino.remove(forma);
+
+        if (estado == MUERTA && fin == Resultado.Fin.COMPLETA) {
+            muertas.add(forma);
+            bytesMuertas += 88 + 2L * forma.length();
+        }
+        return estado;
+    }
+
+    // Ni acortándose maxAcorte en cada paso restante llega al largo del inicial
+    private boolean demasiadoLarga(String forma, int d) {
+        long restantes = profundidadMaxima + 1L - d;
+        return forma.length() - gramatica.estadoInicial.length() > restantes * maxAcorte;
+    }
+
+    // Formas de las que se obtiene forma en un paso de la derivación, con su regla
+    private List<Reduccion> reducciones(String forma, int d) {
+        expandidos++;
+        if (d > profundidadAlcanzada) profundidadAlcanzada = d;
+        long t = medir ? System.nanoTime() : 0;
+        List<Reduccion> salida = new ArrayList<>();
+        matcher.buscar(forma, (patron, inicio) -> {
+            String reducida = forma.substring(0, inicio) + gramatica.cabezas[cabezaPatron[patron]]
+                    + forma.substring(inicio + largoPatron[patron]);
+            agregarSiCoherente(reducida, cabezaPatron[patron], inicio, reglaPatron[patron], d, salida);
+        });
+        for (int[] vacia : reglasVacias) {
+            for (int i = 0; i <= forma.length(); i++) {
+                String reducida = forma.substring(0, i) + gramatica.cabezas[vacia[0]] + forma.substring(i);
+                agregarSiCoherente(reducida, vacia[0], i, vacia[1], d, salida);
+            }
+        }
+        if (medir) oyente.nodoExpandido(d, salida.size(), System.nanoTime() - t);
+        return salida;
+    }
+
+    // La reducción vale si, hacia adelante, GeneraEstados expandiría justo esa cabeza ahí
+    private void agregarSiCoherente(String reducida, int cabeza, int posicion, int regla, int d,
+                                    List<Reduccion> salida) {
+        long e = gramatica.eleccion(reducida);
+        if (e < 0 || (int) (e >>> 32) != cabeza || (int) e != posicion) return;
+        if (viables != null && !viables.viable(reducida, posicion)) return;
+        salida.add(new Reduccion(reducida, regla));
+        generados++;
+        if (medir) oyente.nodoGenerado(d + 1);
+    }
+
+    // Copia al árbol la derivación inicial -> objetivo que está en la pila
+    private void registrar(int d) {
+        int nodo = arbol.agregar(formas[d], -1, -1);
+        for (int k = d - 1; k >= 0; k--) nodo = arbol.agregar(formas[k], nodo, reglas[k]);
+        if (nSoluciones == soluciones.length) soluciones = Arrays.copyOf(soluciones, nSoluciones * 2);
+        soluciones[nSoluciones++] = nodo;
+        if (medir) oyente.solucion(d);
+    }
+
+    private boolean agotado() {
+        if (expandidos >= presupuesto.maxExpandidos) {
+            fin = Resultado.Fin.NODOS_AGOTADOS;
+        } else if (bytesMuertas > presupuesto.maxBytes) {
+            fin = Resultado.Fin.MEMORIA_AGOTADA;
+        } else if (conPlazo && (expandidos & 0xFF) == 0 && System.nanoTime() - t0 > presupuesto.tiempoNanos) {
+            fin = Resultado.Fin.TIEMPO_AGOTADO;
+        }
+        return fin != Resultado.Fin.COMPLETA;
+    }
+
+    private static final class Reduccion {
+        final String forma;
+        final int regla;
+
+        Reduccion(String forma, int regla) {
+            this.forma = forma;
+            this.regla = regla;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package gramatica;
+
+// =============================================================
+// Clase Regla: representa una producción (número + parte derecha)
+// =============================================================
+public class Regla {
+    public final int noRegla;
+    public final String produccion; // cuerpo/derecha
+
+    public Regla(int noRegla, String produccion) {
+        this.noRegla = noRegla;
+        this.produccion = produccion;
+    }
+}
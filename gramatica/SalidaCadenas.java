@@ -0,0 +1,52 @@
+package gramatica;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// =============================================================
+// Clase SalidaCadenas: escribe las cadenas enumeradas en un archivo
+// =============================================================
+// Una línea por cadena ("ε" para la vacía), seguida de un tabulador y
+// el número de derivaciones si se contaron. Acumula en un buffer directo
+// y lo vuelca al canal cuando se llena.
+public class SalidaCadenas implements SumideroCadenas, Closeable {
+    static final int TAMANO_BUFFER = 1 << 20;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+
+    public SalidaCadenas(Path archivo) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void cadena(String cadena, long derivaciones) throws IOException {
+        String linea = (cadena.isEmpty() ? "ε" : cadena) + (derivaciones >= 0 ? "\t" + derivaciones : "") + "\n";
+        byte[] bytes = linea.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) vaciar();
+        if (bytes.length > buffer.capacity()) {
+            ByteBuffer b = ByteBuffer.wrap(bytes);
+            while (b.hasRemaining()) canal.write(b);
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        vaciar();
+        canal.close();
+    }
+}
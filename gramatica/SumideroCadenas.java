@@ -0,0 +1,13 @@
+package gramatica;
+
+import java.io.IOException;
+
+// =============================================================
+// Interfaz SumideroCadenas: destino de las cadenas de Enumerador
+// =============================================================
+// Recibe cada cadena distinta una sola vez. derivaciones = número de
+// derivaciones por la izquierda, o -1 si no se cuentan. Las llamadas
+// llegan de a una (Enumerador las serializa), en cualquier orden.
+public interface SumideroCadenas {
+    void cadena(String cadena, long derivaciones) throws IOException;
+}
@@ -0,0 +1,34 @@
+package gramatica;
+
+import busqueda.Resultado;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// =============================================================
+// Funciones auxiliares: reconstrucción de derivaciones
+// =============================================================
+public class Utilidades {
+
+    public static List<String> reconstruirTodosLosCaminos(Resultado<String> resultado, String prefijo) {
+        List<String> caminos = new ArrayList<>();
+        for (int i = 0; i < resultado.cantidad(); i++) {
+            caminos.add(reconstruirCamino(resultado, i, prefijo));
+        }
+        return caminos;
+    }
+
+    // Formato: prefijo(forma,regla)->(forma,regla)->...->(cadena final)
+    // donde cada regla es la que se aplicó a esa forma para obtener la siguiente
+    public static String reconstruirCamino(Resultado<String> resultado, int i, String prefijo) {
+        List<String> cadenas = resultado.camino(i);
+        int[] reglas = resultado.operaciones(i);
+
+        StringBuilder camino = new StringBuilder(prefijo);
+        for (int j = 0; j < reglas.length; j++) {
+            camino.append("(").append(cadenas.get(j)).append(",").append(reglas[j]).append(")->");
+        }
+        camino.append("(").append(cadenas.get(cadenas.size() - 1)).append(")");
+        return camino.toString();
+    }
+}
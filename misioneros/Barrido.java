@@ -0,0 +1,226 @@
+package misioneros;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ==================================================
+// Clase Barrido: tabla de viajes mínimos para muchas instancias (M, C, K)
+// ==================================================
+// Reparte las configuraciones entre los hilos de un ForkJoinPool. Cada
+// hilo guarda sus propios buffers (distancias y cola de la BFS) y los
+// reutiliza entre instancias; solo crecen cuando llega una más grande.
+//
+// Los resultados se agregan a un CSV, una línea completa por instancia,
+// en el orden en que terminan:
+//   misioneros,canibales,capacidad,viajes,estados,ms
+// viajes = -1 si no hay solución; estados = estados alcanzados por la BFS.
+// El archivo es el punto de control: al volver a lanzar el barrido se
+// leen las instancias ya escritas y se saltan; si la última línea quedó
+// cortada por una interrupción se descarta y se vuelve a calcular. Si
+// una instancia falla, ejecutar() espera a las demás y relanza el primer
+// error; lo ya escrito sigue sirviendo como punto de control.
+//
+// Uso: java misioneros.Barrido M C K archivo [hilos]
+//   M, C y K son "n" (de 1 a n) o "a-b"; hilos por defecto = procesadores.
+public class Barrido {
+    static final String CABECERA = "misioneros,canibales,capacidad,viajes,estados,ms";
+    static final int FORZAR_CADA = 1024;   // líneas entre cada force() del archivo
+
+    final int[] misioneros;   // {desde, hasta}
+    final int[] canibales;
+    final int[] capacidades;
+    final Path archivo;
+    public int hilos = Runtime.getRuntime().availableProcessors();
+
+    private FileChannel canal;
+    private long sinForzar;
+    private final AtomicLong hechas = new AtomicLong();
+    private final ThreadLocal<Trabajador> trabajadores = ThreadLocal.withInitial(Trabajador::new);
+
+    public Barrido(int[] misioneros, int[] canibales, int[] capacidades, Path archivo) {
+        this.misioneros = misioneros;
+        this.canibales = canibales;
+        this.capacidades = capacidades;
+        this.archivo = archivo;
+    }
+
+    // Calcula las instancias que faltan; devuelve cuántas se calcularon
+    public long ejecutar() throws IOException, InterruptedException {
+        Set<Long> previas = reanudar();
+        List<int[]> pendientes = new ArrayList<>();
+        for (int m = misioneros[0]; m <= misioneros[1]; m++) {
+            for (int c = canibales[0]; c <= canibales[1]; c++) {
+                for (int k = capacidades[0]; k <= capacidades[1]; k++) {
+                    if (!previas.contains(clave(m, c, k))) pendientes.add(new int[]{m, c, k});
+                }
+            }
+        }
+
+        hechas.set(0);
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>(pendientes.size());
+        try {
+            if (canal.size() == 0) escribir(CABECERA + "\n");
+            for (int[] p : pendientes) {
+                tareas.add(pool.submit(() -> {
+                    escribir(trabajadores.get().resolver(p[0], p[1], p[2]));
+                    hechas.incrementAndGet();
+                }));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            for (Future<?> tarea : tareas) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    if (causa instanceof UncheckedIOException) throw ((UncheckedIOException) causa).getCause();
+                    if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+                    if (causa instanceof Error) throw (Error) causa;
+                    throw new IllegalStateException(causa);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            synchronized (this) {
+                canal.force(false);
+                canal.close();
+            }
+        }
+        return hechas.get();
+    }
+
+    // Lee el archivo previo: devuelve las instancias hechas y corta una última línea incompleta
+    Set<Long> reanudar() throws IOException {
+        Set<Long> hechasAntes = new HashSet<>();
+        if (!Files.exists(archivo)) return hechasAntes;
+
+        byte[] contenido = Files.readAllBytes(archivo);
+        int completo = contenido.length;
+        while (completo > 0 && contenido[completo - 1] != '\n') completo--;
+        if (completo < contenido.length) {
+            try (FileChannel c = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                c.truncate(completo);
+            }
+        }
+
+        String texto = new String(contenido, 0, completo, StandardCharsets.UTF_8);
+        for (String linea : texto.split("\n")) {
+            if (linea.isEmpty() || linea.equals(CABECERA)) continue;
+            String[] campos = linea.split(",");
+            if (campos.length != 6) continue;
+            try {
+                hechasAntes.add(clave(Integer.parseInt(campos[0]), Integer.parseInt(campos[1]),
+                        Integer.parseInt(campos[2])));
+            } catch (NumberFormatException e) {
+                // línea ajena al formato: se ignora y la instancia se recalcula
+            }
+        }
+        return hechasAntes;
+    }
+
+    private synchronized void escribir(String linea) {
+        try {
+            ByteBuffer b = ByteBuffer.wrap(linea.getBytes(StandardCharsets.UTF_8));
+            while (b.hasRemaining()) canal.write(b);
+            if (++sinForzar >= FORZAR_CADA) {
+                canal.force(false);
+                sinForzar = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long clave(int m, int c, int k) {
+        return ((long) m << 42) | ((long) c << 21) | k;
+    }
+
+    // =============================================================
+    // Buffers de un hilo: BFS desde el inicio sobre índices densos
+    // =============================================================
+    static final class Trabajador {
+        short[] distancias = new short[0];
+        int[] cola = new int[0];
+        int[] hijos = new int[0];
+        int[] ops = new int[0];
+
+        String resolver(int m, int c, int k) {
+            long t0 = System.nanoTime();
+            GeneraEstados g = new GeneraEstados(m, c, k);
+            int total = 2 * (m + 1) * (c + 1);
+            if (distancias.length < total) {
+                distancias = new short[total];
+                cola = new int[total];
+            }
+            Arrays.fill(distancias, 0, total, (short) -1);
+
+            int inicio = indice(c, m, c, 1);
+            int meta = indice(c, 0, 0, 0);
+            Expansor expansor = Expansor.crear(g);
+            if (hijos.length < expansor.capacidadBuffer()) {
+                hijos = new int[expansor.capacidadBuffer()];
+                ops = new int[expansor.capacidadBuffer()];
+            }
+            int cabeza = 0, fin = 0;
+            distancias[inicio] = 0;
+            cola[fin++] = inicio;
+
+            while (cabeza < fin && distancias[meta] < 0) {
+                int u = cola[cabeza++];
+                int n = expansor.expandir(u, hijos, ops);
+                for (int i = 0; i < n; i++) {
+                    int v = hijos[i];
+                    if (distancias[v] >= 0) continue;
+                    distancias[v] = (short) (distancias[u] + 1);
+                    cola[fin++] = v;
+                }
+            }
+            return m + "," + c + "," + k + "," + distancias[meta] + "," + fin + ","
+                    + String.format(Locale.ROOT, "%.3f", (System.nanoTime() - t0) / 1e6) + "\n";
+        }
+
+        private static int indice(int canibales, int mIzq, int cIzq, int barco) {
+            return ((mIzq * (canibales + 1) + cIzq) << 1) | barco;
+        }
+    }
+
+    static int[] rango(String texto) {
+        int guion = texto.indexOf('-');
+        if (guion < 0) return new int[]{1, Integer.parseInt(texto)};
+        return new int[]{Integer.parseInt(texto.substring(0, guion)), Integer.parseInt(texto.substring(guion + 1))};
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println("Uso: java misioneros.Barrido M C K archivo [hilos]   (M, C, K: n o a-b)");
+            return;
+        }
+        Barrido barrido = new Barrido(rango(args[0]), rango(args[1]), rango(args[2]), Paths.get(args[3]));
+        if (args.length > 4) barrido.hilos = Integer.parseInt(args[4]);
+        long t0 = System.nanoTime();
+        long n = barrido.ejecutar();
+        System.out.printf("%d instancias calculadas en %.1f s (%d hilos) -> %s%n",
+                n, (System.nanoTime() - t0) / 1e9, barrido.hilos, args[3]);
+    }
+}
@@ -0,0 +1,176 @@
+package misioneros;
+
+import busqueda.Arbol;
+import busqueda.MapaLongInt;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+
+import java.util.Arrays;
+
+// ==================================================
+// Clase BuscadorSimetrico: BFS sobre el espacio cociente por simetría
+// ==================================================
+// Intercambiar las orillas (y el lado del barco) es una simetría del
+// problema que lleva el inicio a la meta. Si se recorre además el tiempo
+// al revés, un camino inicio -> s se convierte en s' -> meta, con s' el
+// reflejo de s. Así basta una BFS desde el inicio que guarde un solo
+// estado por órbita {s, espejo(s)}:
+//
+//   - antes de marcar un hijo se toma el representante de su órbita
+//     (GeneraEstados.canonica), de modo que la otra mitad del espacio
+//     no se genera;
+//   - cuando un hijo cae en una órbita ya guardada con el estado
+//     reflejado, la búsqueda se "encuentra con su espejo": inicio -> hijo
+//     más el reflejo invertido del camino inicio -> espejo(hijo) es una
+//     solución completa.
+//
+// Un camino óptimo de longitud L se detecta al expandir el nivel
+// (L - 1) / 2, así que al terminar el nivel d cualquier solución no vista
+// mide más de 2d + 1 y la mejor encontrada ya es óptima.
+//
+// El camino se "levanta" a movimientos concretos en el Arbol del
+// Resultado, así que Utilidades.reconstruirCamino no cambia. Solo vale si
+// el estado final es el reflejo del inicial (GeneraEstados.esSimetrico)
+// y ambos son válidos: con C > M la meta misma no es válida y el
+// encuentro con el espejo armaría un camino que termina en ella.
+public class BuscadorSimetrico {
+    final GeneraEstados generador;
+
+    public OyenteBusqueda oyente = OyenteBusqueda.NULO;
+    public Presupuesto presupuesto = Presupuesto.ILIMITADO;
+
+    private Arbol<int[]> arbol;
+    private MapaLongInt orbitas;      // representante de la órbita -> nodo del árbol
+    private int[] nivel = new int[16];
+    private int nNivel;
+    private int[] siguiente = new int[16];
+    private int nSiguiente;
+
+    // Mejor encuentro con el espejo: padre -> hijo (op) y nodo reflejado
+    private int mejor;
+    private int mejorPadre;
+    private int[] mejorHijo;
+    private int mejorOp;
+    private int mejorReflejo;
+
+    private int actual;
+    private int hijos;
+    private long expandidos;
+    private long generados;
+    private boolean medir;
+
+    public BuscadorSimetrico(GeneraEstados generador) {
+        if (!generador.esSimetrico()) {
+            throw new IllegalArgumentException("El estado final no es el reflejo del inicial");
+        }
+        if (!generador.esValido(generador.estadoInicial) || !generador.esValido(generador.estadoFinal)) {
+            throw new IllegalArgumentException("El estado inicial o el final no es válido");
+        }
+        this.generador = generador;
+    }
+
+    public Resultado<int[]> buscar() {
+        long t0 = System.nanoTime();
+        boolean conPlazo = presupuesto.tiempoNanos != Long.MAX_VALUE;
+        medir = oyente != OyenteBusqueda.NULO;
+        if (medir) oyente.inicio("misioneros BFS_simetrico");
+
+        arbol = new Arbol<>();
+        orbitas = new MapaLongInt();
+        expandidos = 0;
+        generados = 0;
+        mejor = Integer.MAX_VALUE;
+        Resultado.Fin fin = Resultado.Fin.COMPLETA;
+
+        int[] inicial = generador.inicial();
+        int raiz = arbol.agregar(inicial, -1, -1);
+        orbitas.poner(GeneraEstados.canonica(inicial), raiz);
+        nNivel = 0;
+        nivel[nNivel++] = raiz;
+        int d = 0;
+        if (generador.esMeta(inicial)) mejor = 0;
+
+        buscarNivel:
+        while (nNivel > 0 && mejor > 0) {
+            nSiguiente = 0;
+            for (int i = 0; i < nNivel; i++) {
+                if (expandidos >= presupuesto.maxExpandidos) {
+                    fin = Resultado.Fin.NODOS_AGOTADOS;
+                } else if (orbitas.bytes() > presupuesto.maxBytes) {
+                    fin = Resultado.Fin.MEMORIA_AGOTADA;
+                } else if (conPlazo && (expandidos & 0xFF) == 0 && System.nanoTime() - t0 > presupuesto.tiempoNanos) {
+                    fin = Resultado.Fin.TIEMPO_AGOTADO;
+                }
+                if (fin != Resultado.Fin.COMPLETA) break buscarNivel;
+
+                actual = nivel[i];
+                hijos = 0;
+                expandidos++;
+                long t = medir ? System.nanoTime() : 0;
+                generador.expandir(arbol.estado(actual), this::recibir);
+                if (medir) oyente.nodoExpandido(d, hijos, System.nanoTime() - t);
+            }
+            if (medir) oyente.frontera(nSiguiente);
+            if (mejor <= 2 * d + 1) break;
+
+            int[] t = nivel;
+            nivel = siguiente;
+            siguiente = t;
+            nNivel = nSiguiente;
+            d++;
+        }
+
+        int[] soluciones = new int[0];
+        if (mejor == 0) {
+            soluciones = new int[]{raiz};
+        } else if (mejor != Integer.MAX_VALUE) {
+            soluciones = new int[]{levantar()};
+        }
+        if (medir) {
+            if (soluciones.length > 0) oyente.solucion(arbol.profundidad(soluciones[0]));
+            oyente.fin();
+        }
+        return new Resultado<>(arbol, soluciones, fin, expandidos, generados,
+                orbitas.tamano(), d, System.nanoTime() - t0);
+    }
+
+    private void recibir(int[] hijo, int op) {
+        long k = GeneraEstados.canonica(hijo);
+        int guardado = orbitas.obtener(k);
+        if (guardado < 0) {
+            int id = arbol.agregar(hijo, actual, op);
+            orbitas.poner(k, id);
+            if (nSiguiente == siguiente.length) siguiente = Arrays.copyOf(siguiente, nSiguiente * 2);
+            siguiente[nSiguiente++] = id;
+            hijos++;
+            generados++;
+            if (medir) oyente.nodoGenerado(arbol.profundidad(id));
+            return;
+        }
+        if (medir) oyente.duplicadoVisitados();
+        if (Arrays.equals(arbol.estado(guardado), hijo)) return;   // el mismo estado, no su reflejo
+
+        int largo = arbol.profundidad(actual) + 1 + arbol.profundidad(guardado);
+        if (largo < mejor) {
+            mejor = largo;
+            mejorPadre = actual;
+            mejorHijo = hijo;
+            mejorOp = op;
+            mejorReflejo = guardado;
+        }
+    }
+
+    // Agrega al árbol la segunda mitad del camino: el camino inicio -> espejo(hijo)
+    // reflejado y recorrido al revés. La carga de cada viaje es la misma.
+    private int levantar() {
+        int nodo = arbol.agregar(mejorHijo, mejorPadre, mejorOp);
+        int q = mejorReflejo;
+        while (arbol.padre(q) >= 0) {
+            int op = arbol.operacion(q);
+            q = arbol.padre(q);
+            nodo = arbol.agregar(GeneraEstados.espejo(arbol.estado(q)), nodo, op);
+        }
+        return nodo;
+    }
+}
@@ -0,0 +1,141 @@
+package misioneros;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+
+// ==================================================
+// Clase Expansor: sucesores de un estado empaquetado, todas las cargas a la vez
+// ==================================================
+// El estado va empaquetado en un int: ((mIzq * (C + 1) + cIzq) << 1) | barco
+// (el mismo índice denso de OraculoDistancias); la orilla derecha se
+// deduce de los totales. Solo sirve si 2(M + 1)(C + 1) cabe en un int
+// (cabe()); si no, el constructor lo rechaza. Las cargas se guardan por columnas (cargaM,
+// cargaC) y se evalúan todas sin saltos: cada hijo se escribe siempre y
+// el contador solo avanza si es válido. Los hijos quedan en el buffer
+// del llamador, en el orden de las operaciones.
+//
+// crear() devuelve la versión con jdk.incubator.vector (ExpansorVectorial)
+// si el módulo está cargado y la clase compilada; si no, esta versión
+// escalar. Para usar la vectorial:
+//   javac -encoding UTF-8 --add-modules jdk.incubator.vector -d out misioneros/ExpansorVectorial.java ...
+//   java --add-modules jdk.incubator.vector ...
+// -Dmisioneros.vector=false fuerza la escalar.
+public class Expansor {
+    // Carga de relleno: con ella ningún hijo es válido (ver ExpansorVectorial)
+    static final int CARGA_IMPOSIBLE = 1 << 20;
+
+    final int misioneros;
+    final int canibales;
+    final int[] cargaM;       // misioneros de cada carga
+    final int[] cargaC;       // caníbales de cada carga
+    final int operaciones;    // cargas reales (los arreglos pueden traer relleno)
+
+    private static volatile Constructor<?> vectorial;
+    private static volatile boolean probado;
+
+    public Expansor(int misioneros, int canibales, int[][] cargas) {
+        this(misioneros, canibales, cargas, 1);
+    }
+
+    // ancho: los arreglos de cargas se rellenan hasta un múltiplo de ancho
+    Expansor(int misioneros, int canibales, int[][] cargas, int ancho) {
+        if (!cabe(misioneros, canibales)) {
+            throw new IllegalArgumentException("Demasiados estados para empaquetarlos en un int: "
+                    + misioneros + " misioneros, " + canibales + " caníbales");
+        }
+        this.misioneros = misioneros;
+        this.canibales = canibales;
+        this.operaciones = cargas.length;
+        int n = (cargas.length + ancho - 1) / ancho * ancho;
+        cargaM = new int[n];
+        cargaC = new int[n];
+        Arrays.fill(cargaM, CARGA_IMPOSIBLE);
+        Arrays.fill(cargaC, CARGA_IMPOSIBLE);
+        for (int i = 0; i < cargas.length; i++) {
+            cargaM[i] = cargas[i][0];
+            cargaC[i] = cargas[i][1];
+        }
+    }
+
+    // Los índices empaquetados, de 0 a 2(M + 1)(C + 1) - 1, caben en un int
+    public static boolean cabe(int misioneros, int canibales) {
+        return 2L * (misioneros + 1L) * (canibales + 1L) <= 1L << 31;
+    }
+
+    public static Expansor crear(GeneraEstados g) {
+        Constructor<?> v = constructorVectorial();
+        if (v != null) {
+            try {
+                return (Expansor) v.newInstance(g.misioneros, g.canibales, g.operaciones);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // se sigue con la escalar
+            }
+        }
+        return new Expansor(g.misioneros, g.canibales, g.operaciones);
+    }
+
+    // Escribe en hijos/ops los sucesores válidos de estado; devuelve cuántos son.
+    // Ambos buffers deben tener al menos capacidadBuffer() posiciones.
+    public int expandir(int estado, int[] hijos, int[] ops) {
+        int barco = estado & 1;
+        int resto = estado >>> 1;
+        int mIzq = resto / (canibales + 1);
+        int cIzq = resto - mIzq * (canibales + 1);
+        int signo = 1 - 2 * barco;       // el barco a la izquierda lleva gente a la derecha
+        int lado = 1 - barco;
+
+        int n = 0;
+        for (int i = 0; i < operaciones; i++) {
+            int nm = mIzq + signo * cargaM[i];
+            int nc = cIzq + signo * cargaC[i];
+            int md = misioneros - nm;
+            int cd = canibales - nc;
+            boolean valido = (nm | nc | md | cd) >= 0
+                    && (nm == 0 || nc <= nm)
+                    && (md == 0 || cd <= md);
+            hijos[n] = ((nm * (canibales + 1) + nc) << 1) | lado;
+            ops[n] = i;
+            n += valido ? 1 : 0;
+        }
+        return n;
+    }
+
+    public int capacidadBuffer() {
+        return cargaM.length;
+    }
+
+    public boolean esVectorial() {
+        return false;
+    }
+
+    public int empaquetar(int[] estado) {
+        return ((estado[0] * (canibales + 1) + estado[1]) << 1) | estado[2];
+    }
+
+    public int[] desempaquetar(int estado) {
+        int resto = estado >>> 1;
+        int mIzq = resto / (canibales + 1);
+        int cIzq = resto - mIzq * (canibales + 1);
+        return new int[]{mIzq, cIzq, estado & 1, misioneros - mIzq, canibales - cIzq};
+    }
+
+    private static Constructor<?> constructorVectorial() {
+        if (!probado) {
+            synchronized (Expansor.class) {
+                if (!probado) {
+                    if (!"false".equals(System.getProperty("misioneros.vector"))
+                            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                        try {
+                            vectorial = Class.forName("misioneros.ExpansorVectorial")
+                                    .getDeclaredConstructor(int.class, int.class, int[][].class);
+                        } catch (ReflectiveOperationException | LinkageError e) {
+                            vectorial = null;   // no compilada o módulo ausente
+                        }
+                    }
+                    probado = true;
+                }
+            }
+        }
+        return vectorial;
+    }
+}
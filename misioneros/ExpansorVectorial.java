@@ -0,0 +1,65 @@
+package misioneros;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// ==================================================
+// Clase ExpansorVectorial: Expansor con jdk.incubator.vector
+// ==================================================
+// Evalúa tantas cargas por instrucción como carriles tenga la especie
+// preferida. Las cargas se rellenan hasta un múltiplo del ancho con
+// CARGA_IMPOSIBLE, así el último bloque no necesita cola escalar. La
+// máscara de válidos se recorre bit a bit para compactar los hijos en
+// orden de operación (la API de JDK 17 no tiene compress()).
+//
+// Requiere --add-modules jdk.incubator.vector al compilar y al ejecutar;
+// se carga por reflexión desde Expansor.crear.
+final class ExpansorVectorial extends Expansor {
+    private static final VectorSpecies<Integer> ESPECIE = IntVector.SPECIES_PREFERRED;
+
+    private final int[] bloque = new int[ESPECIE.length()];
+
+    ExpansorVectorial(int misioneros, int canibales, int[][] cargas) {
+        super(misioneros, canibales, cargas, ESPECIE.length());
+    }
+
+    @Override
+    public int expandir(int estado, int[] hijos, int[] ops) {
+        int barco = estado & 1;
+        int resto = estado >>> 1;
+        int mIzq = resto / (canibales + 1);
+        int cIzq = resto - mIzq * (canibales + 1);
+        int signo = 1 - 2 * barco;
+        int lado = 1 - barco;
+
+        int n = 0;
+        for (int i = 0; i < cargaM.length; i += ESPECIE.length()) {
+            IntVector nm = IntVector.fromArray(ESPECIE, cargaM, i).mul(signo).add(mIzq);
+            IntVector nc = IntVector.fromArray(ESPECIE, cargaC, i).mul(signo).add(cIzq);
+            IntVector md = nm.neg().add(misioneros);
+            IntVector cd = nc.neg().add(canibales);
+
+            VectorMask<Integer> valido = nm.or(nc).or(md).or(cd).compare(VectorOperators.GE, 0)
+                    .and(nm.compare(VectorOperators.EQ, 0).or(nc.compare(VectorOperators.LE, nm)))
+                    .and(md.compare(VectorOperators.EQ, 0).or(cd.compare(VectorOperators.LE, md)));
+            long bits = valido.toLong();
+            if (bits == 0) continue;
+
+            nm.mul(canibales + 1).add(nc).lanewise(VectorOperators.LSHL, 1).or(lado).intoArray(bloque, 0);
+            while (bits != 0) {
+                int j = Long.numberOfTrailingZeros(bits);
+                hijos[n] = bloque[j];
+                ops[n++] = i + j;
+                bits &= bits - 1;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public boolean esVectorial() {
+        return true;
+    }
+}
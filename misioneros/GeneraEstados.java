@@ -0,0 +1,191 @@
+package misioneros;
+
+import busqueda.EspacioEstados;
+import busqueda.Sucesores;
+import busqueda.externa.CodecEstado;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// ==================================================
+// Clase GeneraEstados: espacio de estados de misioneros y caníbales
+// ==================================================
+// Estado: {mIzq, cIzq, barco, mDer, cDer}, barco = 1 si está a la izquierda.
+// Cada operación es una carga del barco {misioneros, caníbales}.
+public class GeneraEstados implements EspacioEstados<int[]> {
+    final int misioneros;          // Total de misioneros del problema
+    final int canibales;           // Total de caníbales del problema
+    final int[][] operaciones;     // Cargas posibles del barco
+    public int[] estadoInicial;
+    public int[] estadoFinal;
+
+    // Sucesores por lotes (ver Expansor); se crea en la primera expansión.
+    // Los buffers se reutilizan: un generador no se comparte entre hilos.
+    // Si el espacio no cabe en un int empaquetado se expande uno a uno.
+    private Expansor expansor;
+    private int[] hijos;
+    private int[] opsHijos;
+
+    // Problema clásico: 3 misioneros, 3 caníbales, barco para 2
+    public GeneraEstados() {
+        this(3, 3, new int[][]{
+                {1, 1},   // op1: 1 misionero, 1 caníbal
+                {0, 2},   // op2: 0 misioneros, 2 caníbales
+                {2, 0},   // op3: 2 misioneros, 0 caníbales
+                {0, 1},   // op4: 0 misioneros, 1 caníbal
+                {1, 0}}); // op5: 1 misionero, 0 caníbales
+    }
+
+    // Problema generalizado: M misioneros, C caníbales y barco de capacidad K.
+    // Nunca se llevan más de M + C personas, así que las cargas (unas K²/2)
+    // se generan solo hasta min(K, M + C).
+    public GeneraEstados(int misioneros, int canibales, int capacidad) {
+        this(misioneros, canibales, cargas((int) Math.min(capacidad, (long) misioneros + canibales)));
+    }
+
+    private GeneraEstados(int misioneros, int canibales, int[][] operaciones) {
+        this.misioneros = misioneros;
+        this.canibales = canibales;
+        this.operaciones = operaciones;
+        this.estadoInicial = new int[]{misioneros, canibales, 1, 0, 0};
+        this.estadoFinal = new int[]{0, 0, 0, misioneros, canibales};
+    }
+
+    private static int[][] cargas(int capacidad) {
+        int total = (capacidad + 1) * (capacidad + 2) / 2 - 1;
+        int[][] ops = new int[total][];
+        int n = 0;
+        for (int m = 0; m <= capacidad; m++) {
+            for (int c = 0; m + c <= capacidad; c++) {
+                if (m + c == 0) continue; // el barco no cruza vacío
+                ops[n++] = new int[]{m, c};
+            }
+        }
+        return ops;
+    }
+
+    @Override
+    public int[] inicial() {
+        return estadoInicial;
+    }
+
+    @Override
+    public boolean esMeta(int[] estado) {
+        return Arrays.equals(estado, estadoFinal);
+    }
+
+    @Override
+    public void expandir(int[] estado, Sucesores<int[]> salida) {
+        if (!esConsistente(estado) || !Expansor.cabe(misioneros, canibales)) {
+            expandirUnoAUno(estado, salida);
+            return;
+        }
+        if (expansor == null) {
+            expansor = Expansor.crear(this);
+            hijos = new int[expansor.capacidadBuffer()];
+            opsHijos = new int[expansor.capacidadBuffer()];
+        }
+        int n = expansor.expandir(expansor.empaquetar(estado), hijos, opsHijos);
+        for (int i = 0; i < n; i++) {
+            salida.agregar(expansor.desempaquetar(hijos[i]), opsHijos[i]);
+        }
+    }
+
+    // Estados fuera del espacio (p.ej. un estadoInicial inventado a mano), o
+    // espacios demasiado grandes, no se pueden empaquetar: se recorren las
+    // cargas como antes
+    private void expandirUnoAUno(int[] estado, Sucesores<int[]> salida) {
+        int signo = (estado[2] == 1) ? -1 : 1; // movimiento según el lado del barco
+
+        for (int op = 0; op < operaciones.length; op++) {
+            int m = operaciones[op][0];
+            int c = operaciones[op][1];
+
+            int[] nuevo = estado.clone();
+            nuevo[0] += signo * m;  // misioneros izq
+            nuevo[1] += signo * c;  // caníbales izq
+            nuevo[3] -= signo * m;  // misioneros der
+            nuevo[4] -= signo * c;  // caníbales der
+            nuevo[2] = 1 - estado[2]; // cambia el lado del barco
+
+            if (esValido(nuevo)) {
+                salida.agregar(nuevo, op);
+            }
+        }
+    }
+
+    private boolean esConsistente(int[] estado) {
+        return estado[0] >= 0 && estado[0] <= misioneros && estado[1] >= 0 && estado[1] <= canibales
+                && estado[3] == misioneros - estado[0] && estado[4] == canibales - estado[1]
+                && (estado[2] == 0 || estado[2] == 1);
+    }
+
+    @Override
+    public String operacion(int op) {
+        return "op" + (op + 1);
+    }
+
+    public boolean esValido(int[] estado) {
+        int mIzq = estado[0];
+        int cIzq = estado[1];
+        int mDer = estado[3];
+        int cDer = estado[4];
+
+        // Rango válido (0 a M misioneros, 0 a C caníbales)
+        if (mIzq < 0 || mIzq > misioneros || mDer < 0 || mDer > misioneros) return false;
+        if (cIzq < 0 || cIzq > canibales || cDer < 0 || cDer > canibales) return false;
+
+        // Reglas de equilibrio
+        if (mIzq > 0 && cIzq > mIzq) return false;
+        if (mDer > 0 && cDer > mDer) return false;
+
+        return true;
+    }
+
+    // Clave única del estado para los visitados: la orilla derecha se deduce de los totales
+    public static long clave(int[] estado) {
+        return ((long) estado[0] << 32) | ((long) estado[1] << 1) | estado[2];
+    }
+
+    // Estado reflejado: intercambia las orillas y el lado del barco. Es una
+    // simetría del problema (conserva validez y movimientos) que lleva el
+    // estado inicial clásico al final y viceversa.
+    public static int[] espejo(int[] estado) {
+        return new int[]{estado[3], estado[4], 1 - estado[2], estado[0], estado[1]};
+    }
+
+    // Representante de la órbita {estado, espejo(estado)}: la menor de las dos claves
+    public static long canonica(int[] estado) {
+        long propia = clave(estado);
+        long reflejada = ((long) estado[3] << 32) | ((long) estado[4] << 1) | (1 - estado[2]);
+        return Math.min(propia, reflejada);
+    }
+
+    // La simetría sirve si el estado final es el reflejo del inicial
+    public boolean esSimetrico() {
+        return Arrays.equals(espejo(estadoInicial), estadoFinal);
+    }
+
+    // Codec para la búsqueda externa: los 5 enteros en big-endian (no negativos,
+    // así el orden de los bytes coincide con el de los estados)
+    public static final CodecEstado<int[]> CODEC = new CodecEstado<int[]>() {
+        @Override
+        public byte[] codificar(int[] estado) {
+            ByteBuffer b = ByteBuffer.allocate(4 * estado.length);
+            for (int v : estado) b.putInt(v);
+            return b.array();
+        }
+
+        @Override
+        public int[] decodificar(byte[] datos) {
+            ByteBuffer b = ByteBuffer.wrap(datos);
+            int[] estado = new int[datos.length / 4];
+            for (int i = 0; i < estado.length; i++) estado[i] = b.getInt();
+            return estado;
+        }
+    };
+
+    public int getMisioneros() { return misioneros; }
+    public int getCanibales() { return canibales; }
+    public int[][] getOperaciones() { return operaciones; }
+}
@@ -0,0 +1,225 @@
+package misioneros;
+
+import busqueda.Arbol;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// ==================================================
+// Clase OraculoDistancias: distancia a la meta de cada estado
+// ==================================================
+// Una sola BFS desde el estado final recorre todo el espacio (cada
+// cruce se puede deshacer llevando la misma carga de vuelta, así que
+// el grafo es no dirigido). Por cada estado guarda:
+//   distancia    viajes óptimos que faltan (-1 = no tiene solución)
+//   movimiento   operación que acerca a la meta (-1 en la meta)
+// El estado se indexa por (mIzq, cIzq, barco); la orilla derecha se
+// deduce de los totales. Con la tabla, "¿tiene solución?", "¿cuántos
+// viajes faltan?" y "¿cuál es el mejor movimiento?" son lecturas O(1).
+//
+// Archivo: [int MAGIA][int M][int C][int K][short distancias...][short movimientos...]
+// cargar() lo mapea en memoria, sin copiarlo al heap.
+//
+// calcular() con Presupuesto no devuelve una tabla a medias: si la tabla
+// (8 bytes por estado contando la cola) no cabe en maxBytes, o la BFS
+// pasa de maxExpandidos o del plazo, lanza Incompleto con el motivo.
+public class OraculoDistancias {
+    static final int MAGIA = 0x4D43_4F31;   // "MCO1"
+    static final int CABECERA = 16;
+
+    final int misioneros;
+    final int canibales;
+    final int capacidad;
+    private final ShortBuffer distancias;
+    private final ShortBuffer movimientos;
+    private final GeneraEstados generador;
+
+    private OraculoDistancias(int misioneros, int canibales, int capacidad,
+                              ShortBuffer distancias, ShortBuffer movimientos) {
+        this.misioneros = misioneros;
+        this.canibales = canibales;
+        this.capacidad = capacidad;
+        this.distancias = distancias;
+        this.movimientos = movimientos;
+        this.generador = new GeneraEstados(misioneros, canibales, capacidad);
+    }
+
+    // BFS inversa desde la meta sobre todo el espacio de estados
+    public static OraculoDistancias calcular(int misioneros, int canibales, int capacidad) {
+        return calcular(misioneros, canibales, capacidad, Presupuesto.ILIMITADO);
+    }
+
+    public static OraculoDistancias calcular(int misioneros, int canibales, int capacidad, Presupuesto presupuesto) {
+        long t0 = System.nanoTime();
+        boolean conPlazo = presupuesto.tiempoNanos != Long.MAX_VALUE;
+        if (!Expansor.cabe(misioneros, canibales)
+                || 8L * 2 * (misioneros + 1L) * (canibales + 1L) > presupuesto.maxBytes) {
+            throw new Incompleto(Resultado.Fin.MEMORIA_AGOTADA, 0, System.nanoTime() - t0);
+        }
+        GeneraEstados g = new GeneraEstados(misioneros, canibales, capacidad);
+        int total = 2 * (misioneros + 1) * (canibales + 1);
+        short[] dist = new short[total];
+        short[] mov = new short[total];
+        java.util.Arrays.fill(dist, (short) -1);
+        java.util.Arrays.fill(mov, (short) -1);
+
+        int[] cola = new int[total];
+        int cabeza = 0, fin = 0;
+        int meta = indice(canibales, 0, 0, 0);
+        dist[meta] = 0;
+        cola[fin++] = meta;
+
+        Expansor expansor = Expansor.crear(g);
+        int[] hijos = new int[expansor.capacidadBuffer()];
+        int[] ops = new int[expansor.capacidadBuffer()];
+        while (cabeza < fin) {
+            if (cabeza >= presupuesto.maxExpandidos) {
+                throw new Incompleto(Resultado.Fin.NODOS_AGOTADOS, cabeza, System.nanoTime() - t0);
+            }
+            if (conPlazo && (cabeza & 0xFF) == 0 && System.nanoTime() - t0 > presupuesto.tiempoNanos) {
+                throw new Incompleto(Resultado.Fin.TIEMPO_AGOTADO, cabeza, System.nanoTime() - t0);
+            }
+            int u = cola[cabeza++];
+            int n = expansor.expandir(u, hijos, ops);
+            for (int i = 0; i < n; i++) {
+                int v = hijos[i];
+                if (dist[v] >= 0) continue;
+                if (dist[u] == Short.MAX_VALUE) {
+                    throw new IllegalStateException("Distancia mayor que " + Short.MAX_VALUE);
+                }
+                dist[v] = (short) (dist[u] + 1);
+                mov[v] = (short) ops[i];   // la misma carga de vuelta lleva de v a u
+                cola[fin++] = v;
+            }
+        }
+        return new OraculoDistancias(misioneros, canibales, capacidad, ShortBuffer.wrap(dist), ShortBuffer.wrap(mov));
+    }
+
+    public void guardar(Path archivo) throws IOException {
+        int total = distancias.capacity();
+        ByteBuffer b = ByteBuffer.allocate(CABECERA + 4 * total);
+        b.putInt(MAGIA).putInt(misioneros).putInt(canibales).putInt(capacidad);
+        for (int i = 0; i < total; i++) b.putShort(distancias.get(i));
+        for (int i = 0; i < total; i++) b.putShort(movimientos.get(i));
+        b.flip();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (b.hasRemaining()) canal.write(b);
+        }
+    }
+
+    public static OraculoDistancias cargar(Path archivo) throws IOException {
+        ByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (mapa.getInt(0) != MAGIA) throw new IOException("No es un archivo de oráculo: " + archivo);
+        int m = mapa.getInt(4), c = mapa.getInt(8), k = mapa.getInt(12);
+        int total = 2 * (m + 1) * (c + 1);
+        if (mapa.capacity() != CABECERA + 4 * total) throw new IOException("Archivo de oráculo truncado: " + archivo);
+
+        ShortBuffer dist = mapa.position(CABECERA).slice().asShortBuffer();
+        ShortBuffer mov = mapa.position(CABECERA + 2 * total).slice().asShortBuffer();
+        return new OraculoDistancias(m, c, k, dist, mov);
+    }
+
+    // Viajes óptimos que faltan desde estado; -1 si no tiene solución
+    public int distancia(int[] estado) {
+        int i = indiceValido(estado);
+        return i < 0 ? -1 : distancias.get(i);
+    }
+
+    public boolean esResoluble(int[] estado) {
+        return distancia(estado) >= 0;
+    }
+
+    // Índice de la operación óptima (ver GeneraEstados.operacion); -1 en la meta o sin solución
+    public int mejorMovimiento(int[] estado) {
+        int i = indiceValido(estado);
+        return i < 0 ? -1 : movimientos.get(i);
+    }
+
+    // Aplica una operación a un estado (sin validar)
+    public int[] aplicar(int[] estado, int op) {
+        int[] carga = generador.getOperaciones()[op];
+        int signo = (estado[2] == 1) ? -1 : 1;
+        return new int[]{
+                estado[0] + signo * carga[0], estado[1] + signo * carga[1], 1 - estado[2],
+                estado[3] - signo * carga[0], estado[4] - signo * carga[1]};
+    }
+
+    // Camino óptimo desde estado siguiendo los mejores movimientos
+    public Resultado<int[]> resolver(int[] estado) {
+        long t0 = System.nanoTime();
+        Arbol<int[]> arbol = new Arbol<>();
+        int d = distancia(estado);
+        if (d < 0) {
+            return new Resultado<>(arbol, new int[0], Resultado.Fin.COMPLETA, 0, 0, 0, 0, System.nanoTime() - t0);
+        }
+        int nodo = arbol.agregar(estado, -1, -1);
+        for (int paso = 0; paso < d; paso++) {
+            int op = mejorMovimiento(estado);
+            estado = aplicar(estado, op);
+            nodo = arbol.agregar(estado, nodo, op);
+        }
+        return new Resultado<>(arbol, new int[]{nodo}, Resultado.Fin.COMPLETA, d, d, d + 1, d, System.nanoTime() - t0);
+    }
+
+    public GeneraEstados getGenerador() { return generador; }
+
+    // =============================================================
+    // El presupuesto se agotó antes de terminar la tabla
+    // =============================================================
+    public static final class Incompleto extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public final Resultado.Fin fin;
+        public final long expandidos;
+        public final long nanos;
+
+        Incompleto(Resultado.Fin fin, long expandidos, long nanos) {
+            super("Oráculo sin terminar: " + fin);
+            this.fin = fin;
+            this.expandidos = expandidos;
+            this.nanos = nanos;
+        }
+
+        // Resultado parcial, sin camino, con el motivo
+        public Resultado<int[]> resultado() {
+            return new Resultado<>(new Arbol<>(), new int[0], fin, expandidos, expandidos, 0, 0, nanos);
+        }
+    }
+
+    private int indiceValido(int[] estado) {
+        if (estado[0] < 0 || estado[0] > misioneros || estado[1] < 0 || estado[1] > canibales) return -1;
+        if (estado[3] != misioneros - estado[0] || estado[4] != canibales - estado[1]) return -1;
+        if (estado[2] != 0 && estado[2] != 1) return -1;
+        return indice(canibales, estado[0], estado[1], estado[2]);
+    }
+
+    private static int indice(int canibales, int mIzq, int cIzq, int barco) {
+        return ((mIzq * (canibales + 1) + cIzq) << 1) | barco;
+    }
+
+    // Precálculo: java misioneros.OraculoDistancias M C K archivo
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.out.println("Uso: java misioneros.OraculoDistancias M C K archivo");
+            return;
+        }
+        int m = Integer.parseInt(args[0]), c = Integer.parseInt(args[1]), k = Integer.parseInt(args[2]);
+        long t0 = System.nanoTime();
+        OraculoDistancias oraculo = calcular(m, c, k);
+        oraculo.guardar(Paths.get(args[3]));
+        int[] inicial = {m, c, 1, 0, 0};
+        System.out.printf("Oráculo %d:%d:%d guardado en %s (%.1f ms). Viajes desde el inicio: %d%n",
+                m, c, k, args[3], (System.nanoTime() - t0) / 1e6, oraculo.distancia(inicial));
+    }
+}
@@ -0,0 +1,85 @@
+package misioneros;
+
+import busqueda.Buscador;
+import busqueda.Frontera;
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import busqueda.Visitados;
+import busqueda.externa.BuscadorExterno;
+import busqueda.traza.EscritorTraza;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// ==================================================
+// Clase Solucionador: arma el Buscador según el método
+// ==================================================
+// "BFS" y "DFS" podan al generar contra visitados y abiertos, como el
+// ciclo original; "DFS_recursivo" solo contra visitados. "BFS_externo"
+// guarda los niveles en disco (BuscadorExterno) en -Dbusqueda.dirExterno
+// o en un directorio temporal. "BFS_simetrico" recorre una sola orilla de
+// cada par de estados reflejados (BuscadorSimetrico); si el problema no
+// es simétrico o el inicio o la meta no son válidos (p.ej. C > M) se usa
+// la BFS normal.
+//
+// Con -Dbusqueda.traza=archivo, BFS, DFS y DFS_recursivo vuelcan el
+// árbol mientras buscan (ver busqueda.traza.EscritorTraza).
+public class Solucionador {
+
+    public static Buscador<int[]> crear(GeneraEstados generador, String metodo) {
+        Frontera frontera = metodo.equals("BFS") ? Frontera.cola() : Frontera.pila();
+        Visitados<int[]> abiertos = metodo.equals("DFS_recursivo") ? null : Visitados.porClave(GeneraEstados::clave);
+        Buscador<int[]> buscador = new Buscador<>(generador, frontera,
+                Visitados.porClave(GeneraEstados::clave), abiertos);
+        buscador.nombre = "misioneros " + metodo;
+        buscador.podarAlGenerar = true;
+        return buscador;
+    }
+
+    public static Resultado<int[]> resolver(GeneraEstados generador, String metodo, OyenteBusqueda oyente) {
+        return resolver(generador, metodo, oyente, Presupuesto.ILIMITADO);
+    }
+
+    public static Resultado<int[]> resolver(GeneraEstados generador, String metodo,
+                                            OyenteBusqueda oyente, Presupuesto presupuesto) {
+        if (metodo.equals("BFS_externo")) {
+            BuscadorExterno<int[]> externo = new BuscadorExterno<>(generador, GeneraEstados.CODEC, directorioExterno());
+            externo.presupuesto = presupuesto;
+            return externo.buscar();
+        }
+        if (metodo.equals("BFS_simetrico")) {
+            if (generador.esSimetrico() && generador.esValido(generador.estadoInicial)
+                    && generador.esValido(generador.estadoFinal)) {
+                BuscadorSimetrico simetrico = new BuscadorSimetrico(generador);
+                simetrico.oyente = oyente;
+                simetrico.presupuesto = presupuesto;
+                return simetrico.buscar();
+            }
+            metodo = "BFS";
+        }
+        Buscador<int[]> buscador = crear(generador, metodo);
+        buscador.oyente = oyente;
+        buscador.presupuesto = presupuesto;
+        try (EscritorTraza<int[]> traza = EscritorTraza.desdePropiedades(GeneraEstados.CODEC, Arrays::toString)) {
+            buscador.traza = traza;
+            return metodo.equals("DFS_recursivo") ? buscador.buscarRecursivo() : buscador.buscar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path directorioExterno() {
+        String dir = System.getProperty("busqueda.dirExterno");
+        try {
+            return dir != null ? Files.createTempDirectory(Paths.get(dir), "bfs-")
+                               : Files.createTempDirectory("bfs-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
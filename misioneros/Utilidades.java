@@ -0,0 +1,29 @@
+package misioneros;
+
+import busqueda.Resultado;
+
+import java.util.Arrays;
+import java.util.List;
+
+// ==================================================
+// Clase Utilidades: reconstruye e imprime la solución
+// ==================================================
+public class Utilidades {
+    public static List<int[]> reconstruirCamino(Resultado<int[]> resultado) {
+        return resultado.camino(0);
+    }
+
+    public static void imprimirCamino(List<int[]> camino) {
+        System.out.println("\nSolución encontrada:");
+        for (int[] e : camino) {
+            System.out.println(Arrays.toString(e));
+        }
+        System.out.println("Total de pasos: " + (camino.size() - 1));
+    }
+
+    public static void imprimirResultado(String metodo, long tiempo, List<int[]> camino) {
+        System.out.println("\n===== RESULTADO DE LA " + metodo + " =====");
+        imprimirCamino(camino);
+        System.out.println("Tiempo de ejecución: " + tiempo + " ms");
+    }
+}
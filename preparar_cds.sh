@@ -0,0 +1,23 @@
+#!/bin/sh
+# =============================================================
+# Prepara las herramientas de línea de comandos con AppCDS
+# =============================================================
+# Compila MisionerosCanibales y DerivacionGramatica en out/cli/busqueda.jar
+# y hace una corrida de entrenamiento (EntrenamientoCDS) que al terminar
+# vuelca en out/cli/busqueda.jsa las clases cargadas, ya verificadas y
+# enlazadas. correr.sh arranca con ese archivo. Hay que volver a
+# generarlo si cambia el código o la versión de Java (JDK 17 o posterior).
+# Las clases de un directorio no se archivan, por eso el jar.
+set -e
+cd "$(dirname "$0")"
+OUT=out/cli
+
+rm -rf "$OUT"
+mkdir -p "$OUT/clases"
+javac -encoding UTF-8 -XDstringConcat=inline -sourcepath . -d "$OUT/clases" \
+    MisionerosCanibales.java DerivacionGramatica.java EntrenamientoCDS.java
+jar --create --file "$OUT/busqueda.jar" -C "$OUT/clases" .
+
+java -XX:ArchiveClassesAtExit="$OUT/busqueda.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+    -cp "$OUT/busqueda.jar" EntrenamientoCDS
+echo "Listo: $OUT/busqueda.jar y $OUT/busqueda.jsa"
@@ -0,0 +1,75 @@
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import gramatica.Derivador;
+import gramatica.GramaticaCompilada;
+import gramatica.GrammarParser;
+import gramatica.Regla;
+import gramatica.Utilidades;
+
+import java.io.IOException;
+import java.util.*;
+
+// =============================================================
+// Prueba: compilar la gramática no cambia las derivaciones
+// =============================================================
+// Compilar y ejecutar desde la raíz del proyecto:
+//   javac -encoding UTF-8 -sourcepath . -d out/pruebas pruebas/PruebaCompilacion.java
+//   java -cp out/pruebas PruebaCompilacion
+//
+// Para cada gramática, motor y método busca todas las derivaciones con
+// la gramática tal cual (GramaticaCompilada.sinCambios) y con la
+// compilada (Derivador.compilar) y exige las mismas derivaciones. Las
+// dos primeras tienen reglas ε y unitarias que, quitadas, juntaban
+// derivaciones; la tercera tiene además símbolos inútiles, que sí se
+// quitan. Termina con código 1 si algún caso no coincide.
+public class PruebaCompilacion {
+    static final int MAX_N = 12;
+    static final Presupuesto PRESUPUESTO = Presupuesto.ILIMITADO.conMaxExpandidos(2_000_000);
+
+    public static void main(String[] args) throws IOException {
+        int fallas = 0;
+        fallas += probar("S->B|C, B->ε|SCB, C->aa", "aa",
+                "1. S -> B", "2. S -> C", "3. B -> ε", "4. B -> SCB", "5. C -> aa");
+        fallas += probar("S->C|SaB, A->aC|ε, B->bba|C, C->Sa|CA|aa", "aaa",
+                "1. S -> C", "2. S -> SaB", "3. A -> aC", "4. A -> ε", "5. B -> bba", "6. B -> C",
+                "7. C -> Sa", "8. C -> CA", "9. C -> aa");
+        fallas += probar("con improductivos e inalcanzables", "aab",
+                "1. S -> AB", "2. S -> D", "3. A -> aA", "4. A -> ε", "5. A -> a", "6. B -> b",
+                "7. D -> Dd", "8. E -> e");
+        if (fallas > 0) {
+            System.out.println(fallas + " casos con derivaciones distintas");
+            System.exit(1);
+        }
+        System.out.println("Todas las derivaciones coinciden");
+    }
+
+    static int probar(String nombre, String objetivo, String... lineas) throws IOException {
+        Map<String, List<Regla>> reglas = GrammarParser.parseRules(Arrays.asList(lineas));
+        int fallas = 0;
+        for (String motor : new String[]{"descendente", "ascendente", "mejor_primero"}) {
+            for (String metodo : new String[]{"derecha", "izquierda"}) {
+                Resultado<String> crudo = buscar(GramaticaCompilada.sinCambios(reglas, "S"), motor, metodo, objetivo);
+                Resultado<String> compilado = buscar(Derivador.compilar(reglas, "S", objetivo), motor, metodo, objetivo);
+                List<String> a = caminos(crudo);
+                List<String> b = caminos(compilado);
+                boolean bien = !crudo.esParcial() && !compilado.esParcial() && a.equals(b);
+                System.out.println((bien ? "ok    " : "FALLA ") + nombre + " / " + objetivo + " / " + motor + " "
+                        + metodo + ": " + a.size() + " sin compilar, " + b.size() + " compilada"
+                        + (crudo.esParcial() || compilado.esParcial() ? " (búsqueda parcial)" : ""));
+                if (!bien) fallas++;
+            }
+        }
+        return fallas;
+    }
+
+    static Resultado<String> buscar(GramaticaCompilada gramatica, String motor, String metodo, String objetivo) {
+        return Derivador.buscar(gramatica, motor, metodo, objetivo, MAX_N, OyenteBusqueda.NULO, PRESUPUESTO);
+    }
+
+    static List<String> caminos(Resultado<String> resultado) {
+        List<String> caminos = Utilidades.reconstruirTodosLosCaminos(resultado, "");
+        Collections.sort(caminos);
+        return caminos;
+    }
+}
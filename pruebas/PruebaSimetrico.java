@@ -0,0 +1,75 @@
+import busqueda.OyenteBusqueda;
+import busqueda.Resultado;
+import misioneros.GeneraEstados;
+import misioneros.Solucionador;
+
+import java.util.Arrays;
+import java.util.List;
+
+// =============================================================
+// Prueba: BFS_simetrico da las mismas soluciones que BFS
+// =============================================================
+// Compilar y ejecutar desde la raíz del proyecto:
+//   javac -encoding UTF-8 -sourcepath . -d out/pruebas pruebas/PruebaSimetrico.java
+//   java -cp out/pruebas PruebaSimetrico
+//
+// Para cada M, C en 0..MAX y K en 1..MAX_K compara BFS con BFS_simetrico:
+// ambos deben encontrar solución o ninguno, con caminos de igual largo,
+// y cada paso del camino simétrico debe ser un sucesor legal del
+// anterior. La grilla incluye C > M, donde el inicio y la meta no son
+// válidos y no hay solución. Termina con código 1 si algún caso no
+// coincide.
+public class PruebaSimetrico {
+    static final int MAX = 9;
+    static final int MAX_K = 5;
+
+    public static void main(String[] args) {
+        int casos = 0;
+        int fallas = 0;
+        for (int m = 0; m <= MAX; m++) {
+            for (int c = 0; c <= MAX; c++) {
+                for (int k = 1; k <= MAX_K; k++) {
+                    casos++;
+                    String falla = probar(m, c, k);
+                    if (falla != null) {
+                        System.out.println("FALLA " + m + ":" + c + ":" + k + ": " + falla);
+                        fallas++;
+                    }
+                }
+            }
+        }
+        if (fallas > 0) {
+            System.out.println(fallas + " de " + casos + " casos no coinciden");
+            System.exit(1);
+        }
+        System.out.println("Los " + casos + " casos coinciden");
+    }
+
+    static String probar(int m, int c, int k) {
+        Resultado<int[]> bfs = Solucionador.resolver(new GeneraEstados(m, c, k), "BFS", OyenteBusqueda.NULO);
+        GeneraEstados generador = new GeneraEstados(m, c, k);
+        Resultado<int[]> simetrico = Solucionador.resolver(generador, "BFS_simetrico", OyenteBusqueda.NULO);
+        if (bfs.encontrada() != simetrico.encontrada()) {
+            return "BFS " + (bfs.encontrada() ? "encuentra" : "no encuentra") + " solución y BFS_simetrico "
+                    + (simetrico.encontrada() ? "sí" : "no");
+        }
+        if (!bfs.encontrada()) return null;
+        List<int[]> a = bfs.camino(0);
+        List<int[]> b = simetrico.camino(0);
+        if (a.size() != b.size()) return "largos " + (a.size() - 1) + " y " + (b.size() - 1);
+        if (!Arrays.equals(b.get(0), generador.estadoInicial)) return "el camino no sale del inicio";
+        if (!generador.esMeta(b.get(b.size() - 1))) return "el camino no llega a la meta";
+        for (int i = 1; i < b.size(); i++) {
+            if (!esSucesor(generador, b.get(i - 1), b.get(i))) {
+                return "paso ilegal " + Arrays.toString(b.get(i - 1)) + " -> " + Arrays.toString(b.get(i));
+            }
+        }
+        return null;
+    }
+
+    static boolean esSucesor(GeneraEstados generador, int[] padre, int[] hijo) {
+        boolean[] hallado = {false};
+        generador.expandir(padre, (s, op) -> hallado[0] |= Arrays.equals(s, hijo));
+        return hallado[0];
+    }
+}
@@ -0,0 +1,84 @@
+package servicio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// =============================================================
+// Clase CacheAcotado: caché LRU compartida entre solicitudes
+// =============================================================
+// Guarda a lo sumo maxEntradas valores; al pasarse descarta el usado
+// hace más tiempo. Si dos solicitudes piden a la vez la misma clave
+// ausente, el valor se calcula una sola vez: la segunda espera el
+// resultado de la primera (un CompletableFuture en el mapa). El cálculo
+// corre fuera del candado, así que una clave lenta no frena a las demás.
+// Si el cálculo falla, la clave se quita y el error llega a quienes
+// esperaban.
+public class CacheAcotado<K, V> {
+    final int maxEntradas;
+    private final LinkedHashMap<K, CompletableFuture<V>> mapa;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    public CacheAcotado(int maxEntradas) {
+        this.maxEntradas = maxEntradas;
+        this.mapa = new LinkedHashMap<K, CompletableFuture<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CompletableFuture<V>> mayor) {
+                boolean quitar = size() > CacheAcotado.this.maxEntradas;
+                if (quitar) descartes.increment();
+                return quitar;
+            }
+        };
+    }
+
+    public V obtener(K clave, Function<K, V> calcular) {
+        CompletableFuture<V> futuro;
+        boolean propio = false;
+        synchronized (mapa) {
+            futuro = mapa.get(clave);
+            if (futuro == null) {
+                futuro = new CompletableFuture<>();
+                mapa.put(clave, futuro);
+                propio = true;
+            }
+        }
+        if (propio) {
+            fallos.increment();
+            try {
+                futuro.complete(calcular.apply(clave));
+            } catch (RuntimeException | Error e) {
+                synchronized (mapa) {
+                    mapa.remove(clave, futuro);
+                }
+                futuro.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            aciertos.increment();
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la caché", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int tamano() {
+        synchronized (mapa) {
+            return mapa.size();
+        }
+    }
+
+    public long getAciertos() { return aciertos.sum(); }
+    public long getFallos() { return fallos.sum(); }
+    public long getDescartes() { return descartes.sum(); }
+}
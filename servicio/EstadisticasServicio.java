@@ -0,0 +1,121 @@
+package servicio;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// =============================================================
+// Clase EstadisticasServicio: throughput y latencia por ruta
+// =============================================================
+// Contadores sin candados (LongAdder) y un histograma logarítmico de
+// latencias: cuatro cubetas por potencia de dos de microsegundos, así que
+// los percentiles tienen un error relativo de a lo sumo 25 %. Las cuentas por
+// inquilino se llevan aparte. resumenJson() arma la respuesta de
+// /estadisticas.
+public class EstadisticasServicio {
+    static final int CUBETAS = 4 * 40;   // hasta 2^40 µs
+
+    private final long inicio = System.nanoTime();
+    private final Map<String, Ruta> rutas = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> porInquilino = new ConcurrentHashMap<>();
+
+    public void registrar(String ruta, String inquilino, int codigo, long nanos) {
+        rutas.computeIfAbsent(ruta, r -> new Ruta()).registrar(codigo, nanos);
+        porInquilino.computeIfAbsent(inquilino, i -> new LongAdder()).increment();
+    }
+
+    public void empieza(String ruta) {
+        rutas.computeIfAbsent(ruta, r -> new Ruta()).enCurso.increment();
+    }
+
+    public String resumenJson(Map<String, CacheAcotado<?, ?>> caches) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"segundos\":").append(String.format(Locale.ROOT, "%.1f", segundos)).append(",\"rutas\":{");
+        boolean primero = true;
+        for (Map.Entry<String, Ruta> e : new TreeMap<>(rutas).entrySet()) {
+            if (!primero) sb.append(',');
+            primero = false;
+            sb.append(Servicio.json(e.getKey())).append(':').append(e.getValue().json(segundos));
+        }
+        sb.append("},\"caches\":{");
+        primero = true;
+        for (Map.Entry<String, CacheAcotado<?, ?>> e : caches.entrySet()) {
+            if (!primero) sb.append(',');
+            primero = false;
+            CacheAcotado<?, ?> c = e.getValue();
+            sb.append(Servicio.json(e.getKey())).append(":{\"entradas\":").append(c.tamano())
+              .append(",\"maximo\":").append(c.maxEntradas)
+              .append(",\"aciertos\":").append(c.getAciertos())
+              .append(",\"fallos\":").append(c.getFallos())
+              .append(",\"descartes\":").append(c.getDescartes()).append('}');
+        }
+        sb.append("},\"inquilinos\":{");
+        primero = true;
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(porInquilino).entrySet()) {
+            if (!primero) sb.append(',');
+            primero = false;
+            sb.append(Servicio.json(e.getKey())).append(':').append(e.getValue().sum());
+        }
+        return sb.append("}}").toString();
+    }
+
+    // =============================================================
+    // Contadores e histograma de una ruta
+    // =============================================================
+    static final class Ruta {
+        final LongAdder solicitudes = new LongAdder();
+        final LongAdder errores = new LongAdder();      // 4xx y 5xx salvo rechazos
+        final LongAdder rechazadas = new LongAdder();   // 429 y 503: sin capacidad
+        final LongAdder enCurso = new LongAdder();
+        final LongAdder nanosTotales = new LongAdder();
+        final AtomicLongArray histograma = new AtomicLongArray(CUBETAS);
+
+        void registrar(int codigo, long nanos) {
+            enCurso.decrement();
+            solicitudes.increment();
+            if (codigo == 429 || codigo == 503) rechazadas.increment();
+            else if (codigo >= 400) errores.increment();
+            nanosTotales.add(nanos);
+            histograma.incrementAndGet(cubeta(nanos / 1000));
+        }
+
+        static int cubeta(long micros) {
+            if (micros < 1) return 0;
+            int exp = 63 - Long.numberOfLeadingZeros(micros);
+            int fraccion = exp >= 2 ? (int) ((micros >>> (exp - 2)) & 3) : (int) ((micros << (2 - exp)) & 3);
+            return Math.min(CUBETAS - 1, 4 * exp + fraccion);
+        }
+
+        // Límite superior de la cubeta, en milisegundos
+        static double limite(int cubeta) {
+            int exp = cubeta / 4;
+            return ((4 + cubeta % 4 + 1) * Math.pow(2, exp - 2)) / 1000.0;
+        }
+
+        double percentil(double p) {
+            long total = 0;
+            for (int i = 0; i < CUBETAS; i++) total += histograma.get(i);
+            if (total == 0) return 0;
+            long objetivo = (long) Math.ceil(p * total);
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += histograma.get(i);
+                if (acumulado >= objetivo) return limite(i);
+            }
+            return limite(CUBETAS - 1);
+        }
+
+        String json(double segundos) {
+            long n = solicitudes.sum();
+            return String.format(Locale.ROOT,
+                    "{\"solicitudes\":%d,\"errores\":%d,\"rechazadas\":%d,\"enCurso\":%d,"
+                            + "\"porSegundo\":%.1f,\"mediaMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f}",
+                    n, errores.sum(), rechazadas.sum(), enCurso.sum(), n / Math.max(segundos, 1e-9),
+                    n == 0 ? 0.0 : nanosTotales.sum() / 1e6 / n, percentil(0.50), percentil(0.90), percentil(0.99));
+        }
+    }
+}
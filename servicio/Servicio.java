@@ -0,0 +1,439 @@
+package servicio;
+
+import busqueda.OyenteBusqueda;
+import busqueda.Presupuesto;
+import busqueda.Resultado;
+import busqueda.traza.EscritorTraza;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gramatica.Derivador;
+import gramatica.GramaticaCompilada;
+import gramatica.GrammarParser;
+import gramatica.Regla;
+import gramatica.Utilidades;
+import misioneros.GeneraEstados;
+import misioneros.OraculoDistancias;
+import misioneros.Solucionador;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// =============================================================
+// Clase Servicio: los dos motores detrás de un servidor HTTP local
+// =============================================================
+// Rutas (las respuestas son JSON):
+//   GET/POST /misioneros?m=3&c=3&k=2&metodo=BFS
+//       metodo: BFS, DFS, DFS_recursivo, BFS_simetrico u oraculo. Con
+//       "oraculo" se usa la tabla de OraculoDistancias de la instancia,
+//       que se calcula una vez, dentro del presupuesto de la solicitud, y
+//       queda en caché; si no alcanza, la respuesta es parcial y no se
+//       guarda nada. m y c van hasta 2^20, k hasta 256 y la instancia
+//       hasta -Dservicio.maxEstados estados.
+//   POST /derivacion?objetivo=abddcd&metodo=izquierda&motor=descendente
+//       El cuerpo es la gramática en el formato de los archivos
+//       ("1. S -> ABC"). Opcionales: inicial (S), maxN, maxCaminos (10).
+//       La gramática compilada para (gramática, inicial, objetivo) queda
+//       en caché. "ambigua" es null si no se pudo decidir: la búsqueda no
+//       terminó (ver "fin") o hubo poda aproximada y con una sola
+//       derivación no se sabe si faltan otras.
+//   GET /estadisticas
+//       Solicitudes, errores, rechazos, solicitudes por segundo y
+//       latencias (media, p50, p90, p99) por ruta; estado de las cachés y
+//       solicitudes por inquilino.
+//
+// Cada solicitud tiene su Presupuesto: tiempoMs, maxNodos y maxMemoriaMb
+// en la consulta, recortados a los máximos del servidor
+// (-Dservicio.tiempoMs, .maxNodos, .maxMemoriaMb). Un resultado parcial
+// vuelve con "fin" distinto de COMPLETA.
+//
+// Inquilinos: la cabecera X-Inquilino (o ?inquilino=) identifica a quien
+// llama. Cada inquilino tiene a lo sumo -Dservicio.maxPorInquilino
+// solicitudes en curso (si no, 429), y el servidor a lo sumo
+// -Dservicio.maxEnCurso entre todos (si no, 503 sin encolar).
+//
+// Cada solicitud corre en un hilo virtual si la JVM los tiene (Java 21+);
+// si no, en un pool de -Dservicio.hilos hilos (por defecto 2 por
+// procesador). Escucha solo en la interfaz local.
+//
+// Con -Dbusqueda.traza=archivo cada búsqueda escribe su propia traza,
+// archivo-N (ver EscritorTraza.porBusqueda): con un solo archivo las
+// solicitudes concurrentes se pisarían.
+//
+// Uso: java servicio.Servicio [puerto]    (por defecto 8080)
+public class Servicio {
+    static final int MAX_CUERPO = 1 << 20;
+    static final int MAX_PERSONAS = 1 << 20;     // misioneros o caníbales por instancia
+    static final int MAX_CAPACIDAD = 256;        // unas 33 000 cargas por expansión
+    static final String INQUILINO_ANONIMO = "anonimo";
+
+    final int puerto;
+    final Presupuesto presupuestoMaximo;
+    final int maxEnCurso;
+    final int maxPorInquilino;
+    final long maxEstados;
+
+    final CacheAcotado<String, GramaticaCompilada> gramaticas =
+            new CacheAcotado<>(Integer.getInteger("servicio.cacheGramaticas", 256));
+    final CacheAcotado<List<Integer>, OraculoDistancias> oraculos =
+            new CacheAcotado<>(Integer.getInteger("servicio.cacheOraculos", 32));
+    final EstadisticasServicio estadisticas = new EstadisticasServicio();
+
+    private final Semaphore cupos;
+    private final Map<String, Semaphore> cuposInquilino = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> saturado = ThreadLocal.withInitial(() -> false);
+    private HttpServer servidor;
+    private ExecutorService ejecutor;
+
+    public Servicio(int puerto) {
+        this.puerto = puerto;
+        EscritorTraza.porBusqueda = true;
+        this.presupuestoMaximo = Presupuesto.ILIMITADO
+                .conTiempoMs(Long.getLong("servicio.tiempoMs", 5_000))
+                .conMaxExpandidos(Long.getLong("servicio.maxNodos", 5_000_000))
+                .conMaxMemoriaMb(Long.getLong("servicio.maxMemoriaMb", 256));
+        int hilos = Integer.getInteger("servicio.hilos", 2 * Runtime.getRuntime().availableProcessors());
+        this.maxEnCurso = Integer.getInteger("servicio.maxEnCurso", 8 * hilos);
+        this.maxPorInquilino = Integer.getInteger("servicio.maxPorInquilino", Math.max(1, maxEnCurso / 2));
+        this.maxEstados = Long.getLong("servicio.maxEstados", 8_000_000);
+        this.cupos = new Semaphore(maxEnCurso);
+        this.ejecutor = crearEjecutor(hilos);
+    }
+
+    // Hilos virtuales si existen (Java 21+); si no, un pool fijo
+    private static ExecutorService crearEjecutor(int hilos) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(hilos);
+        }
+    }
+
+    public void iniciar() throws IOException {
+        // Sin TCP_NODELAY, cabeceras y cuerpo en escrituras separadas esperan
+        // el ACK diferido del cliente (~40 ms por respuesta)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 1024);
+        servidor.createContext("/misioneros", ex -> atender(ex, "misioneros", this::misioneros));
+        servidor.createContext("/derivacion", ex -> atender(ex, "derivacion", this::derivacion));
+        servidor.createContext("/estadisticas", ex -> atender(ex, "estadisticas", this::estadisticas));
+        servidor.setExecutor(despachador());
+        servidor.start();
+    }
+
+    public void detener() {
+        servidor.stop(0);
+        ejecutor.shutdownNow();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // Reserva el cupo antes de encolar: sin cupo, la solicitud se contesta
+    // con 503 en el mismo hilo del servidor (es solo escribir la respuesta)
+    private Executor despachador() {
+        return tarea -> {
+            if (cupos.tryAcquire()) {
+                ejecutor.execute(() -> {
+                    try {
+                        tarea.run();
+                    } finally {
+                        cupos.release();
+                    }
+                });
+            } else {
+                saturado.set(true);
+                try {
+                    tarea.run();
+                } finally {
+                    saturado.set(false);
+                }
+            }
+        };
+    }
+
+    // ---------------------------------------------------------
+    // Atención común: inquilino, errores, estadísticas
+    // ---------------------------------------------------------
+
+    interface Ruta {
+        String responder(Map<String, String> parametros, byte[] cuerpo);
+    }
+
+    private void atender(HttpExchange ex, String nombre, Ruta ruta) throws IOException {
+        long t0 = System.nanoTime();
+        estadisticas.empieza(nombre);
+        int codigo = 200;
+        String respuesta;
+        String inquilino = INQUILINO_ANONIMO;
+        Semaphore cupoInquilino = null;
+        try {
+            Map<String, String> parametros = parametros(ex.getRequestURI().getRawQuery());
+            inquilino = ex.getRequestHeaders().getFirst("X-Inquilino");
+            if (inquilino == null) inquilino = parametros.getOrDefault("inquilino", INQUILINO_ANONIMO);
+            if (saturado.get()) {
+                codigo = 503;
+                respuesta = error("Servidor saturado: " + maxEnCurso + " solicitudes en curso");
+            } else {
+                Semaphore s = cuposInquilino.computeIfAbsent(inquilino, i -> new Semaphore(maxPorInquilino));
+                if (!s.tryAcquire()) {
+                    codigo = 429;
+                    respuesta = error("El inquilino " + inquilino + " ya tiene " + maxPorInquilino
+                            + " solicitudes en curso");
+                } else {
+                    cupoInquilino = s;
+                    respuesta = ruta.responder(parametros, leerCuerpo(ex));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            codigo = e instanceof CuerpoDemasiadoGrande ? 413 : 400;
+            respuesta = error(e.getMessage());
+        } catch (RuntimeException | StackOverflowError e) {
+            codigo = 500;
+            respuesta = error(e.toString());
+        } finally {
+            if (cupoInquilino != null) cupoInquilino.release();
+        }
+
+        byte[] bytes = respuesta.getBytes(StandardCharsets.UTF_8);
+        try {
+            ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            ex.sendResponseHeaders(codigo, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            estadisticas.registrar(nombre, inquilino, codigo, System.nanoTime() - t0);
+        }
+    }
+
+    private static byte[] leerCuerpo(HttpExchange ex) {
+        try (InputStream in = ex.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                if (out.size() + n > MAX_CUERPO) throw new CuerpoDemasiadoGrande();
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el cuerpo: " + e.getMessage());
+        }
+    }
+
+    static Map<String, String> parametros(String consulta) {
+        Map<String, String> mapa = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) return mapa;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            mapa.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return mapa;
+    }
+
+    // Presupuesto pedido en la consulta, sin pasar los máximos del servidor
+    Presupuesto presupuesto(Map<String, String> p) {
+        long ms = Math.min(entero(p, "tiempoMs", Long.MAX_VALUE), Long.MAX_VALUE / 1_000_000);
+        long mb = Math.min(entero(p, "maxMemoriaMb", Long.MAX_VALUE), Long.MAX_VALUE >> 20);
+        return new Presupuesto(
+                Math.min(presupuestoMaximo.tiempoNanos, ms * 1_000_000),
+                Math.min(presupuestoMaximo.maxExpandidos, entero(p, "maxNodos", Long.MAX_VALUE)),
+                Math.min(presupuestoMaximo.maxBytes, mb << 20));
+    }
+
+    static long entero(Map<String, String> p, String nombre, long omision) {
+        String v = p.get(nombre);
+        if (v == null) return omision;
+        try {
+            long n = Long.parseLong(v);
+            if (n < 0) throw new IllegalArgumentException("El parámetro " + nombre + " no puede ser negativo");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro " + nombre + " no es un número: " + v);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // Rutas
+    // ---------------------------------------------------------
+
+    String misioneros(Map<String, String> p, byte[] cuerpo) {
+        int m = (int) Math.min(entero(p, "m", 3), Integer.MAX_VALUE);
+        int c = (int) Math.min(entero(p, "c", 3), Integer.MAX_VALUE);
+        int k = (int) Math.min(entero(p, "k", 2), Integer.MAX_VALUE);
+        String metodo = p.getOrDefault("metodo", "BFS");
+        if (k < 1 || k > MAX_CAPACIDAD) throw new IllegalArgumentException("Capacidad fuera de rango: " + k);
+        if (m > MAX_PERSONAS || c > MAX_PERSONAS) {
+            throw new IllegalArgumentException("Misioneros y caníbales no pueden pasar de " + MAX_PERSONAS);
+        }
+        if (2L * (m + 1L) * (c + 1L) > maxEstados) {
+            throw new IllegalArgumentException("La instancia pasa de " + maxEstados + " estados");
+        }
+
+        Resultado<int[]> resultado;
+        GeneraEstados generador;
+        switch (metodo) {
+            case "oraculo":
+                Presupuesto presupuesto = presupuesto(p);
+                try {
+                    OraculoDistancias oraculo = oraculos.obtener(List.of(m, c, k),
+                            clave -> OraculoDistancias.calcular(m, c, k, presupuesto));
+                    generador = oraculo.getGenerador();
+                    resultado = oraculo.resolver(generador.estadoInicial);
+                } catch (OraculoDistancias.Incompleto e) {
+                    generador = new GeneraEstados(m, c, k);
+                    resultado = e.resultado();
+                }
+                break;
+            case "BFS":
+            case "DFS":
+            case "DFS_recursivo":
+            case "BFS_simetrico":
+                generador = (m == 3 && c == 3 && k == 2) ? new GeneraEstados() : new GeneraEstados(m, c, k);
+                resultado = Solucionador.resolver(generador, metodo, OyenteBusqueda.NULO, presupuesto(p));
+                break;
+            default:
+                throw new IllegalArgumentException("Método desconocido: " + metodo);
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        campos(sb, resultado);
+        if (resultado.encontrada()) {
+            List<int[]> camino = resultado.camino(0);
+            sb.append(",\"viajes\":").append(camino.size() - 1).append(",\"camino\":[");
+            for (int i = 0; i < camino.size(); i++) {
+                if (i > 0) sb.append(',');
+                sb.append(Arrays.toString(camino.get(i)).replace(" ", ""));
+            }
+            sb.append("],\"operaciones\":[");
+            int[] ops = resultado.operaciones(0);
+            for (int i = 0; i < ops.length; i++) {
+                if (i > 0) sb.append(',');
+                sb.append(json(generador.operacion(ops[i])));
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    String derivacion(Map<String, String> p, byte[] cuerpo) {
+        String objetivo = p.get("objetivo");
+        if (objetivo == null) throw new IllegalArgumentException("Falta el parámetro objetivo");
+        String inicial = p.getOrDefault("inicial", "S");
+        String metodo = p.getOrDefault("metodo", "izquierda");
+        String motor = p.getOrDefault("motor", "descendente");
+        if (!metodo.equals("izquierda") && !metodo.equals("derecha")) {
+            throw new IllegalArgumentException("Método desconocido: " + metodo);
+        }
+        if (!motor.equals("descendente") && !motor.equals("ascendente") && !motor.equals("mejor_primero")) {
+            throw new IllegalArgumentException("Motor desconocido: " + motor);
+        }
+        int maxN = (int) Math.min(entero(p, "maxN", Derivador.MAX_N), 10_000);
+        long maxCaminos = entero(p, "maxCaminos", 10);
+        String texto = new String(cuerpo, StandardCharsets.UTF_8);
+
+        GramaticaCompilada compilada = gramaticas.obtener(texto + '\u0000' + inicial + '\u0000' + objetivo, clave -> {
+            Map<String, List<Regla>> reglas;
+            try {
+                reglas = GrammarParser.parseRules(Arrays.asList(texto.split("\r?\n")));
+            } catch (IOException e) {
+                throw new IllegalArgumentException(e.getMessage());
+            }
+            if (reglas.isEmpty()) throw new IllegalArgumentException("La gramática no tiene reglas");
+            return Derivador.compilar(reglas, inicial, objetivo);
+        });
+        Resultado<String> resultado = Derivador.buscar(compilada, motor, metodo, objetivo, maxN,
+                OyenteBusqueda.NULO, presupuesto(p));
+
+        StringBuilder sb = new StringBuilder("{");
+        campos(sb, resultado);
+        boolean indecisa = resultado.cantidad() <= 1 && (resultado.esParcial() || resultado.esPodaAproximada());
+        sb.append(",\"derivaciones\":").append(resultado.cantidad())
+          .append(",\"ambigua\":").append(indecisa ? "null" : String.valueOf(resultado.cantidad() > 1));
+        if (compilada.getRechazo() != null) sb.append(",\"rechazo\":").append(json(compilada.getRechazo()));
+        sb.append(",\"caminos\":[");
+        for (int i = 0; i < Math.min(resultado.cantidad(), maxCaminos); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(json(Utilidades.reconstruirCamino(resultado, i, "")));
+        }
+        return sb.append("]}").toString();
+    }
+
+    String estadisticas(Map<String, String> p, byte[] cuerpo) {
+        Map<String, CacheAcotado<?, ?>> caches = new LinkedHashMap<>();
+        caches.put("gramaticas", gramaticas);
+        caches.put("oraculos", oraculos);
+        return estadisticas.resumenJson(caches);
+    }
+
+    private static void campos(StringBuilder sb, Resultado<?> r) {
+        sb.append("\"encontrada\":").append(r.encontrada())
+          .append(",\"fin\":").append(json(r.getFin().name()))
+          .append(",\"podaAproximada\":").append(r.esPodaAproximada())
+          .append(",\"expandidos\":").append(r.getExpandidos())
+          .append(",\"generados\":").append(r.getGenerados())
+          .append(",\"ms\":").append(String.format(Locale.ROOT, "%.3f", r.getNanos() / 1e6));
+    }
+
+    // ---------------------------------------------------------
+    // JSON
+    // ---------------------------------------------------------
+
+    static String json(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String error(String mensaje) {
+        return "{\"error\":" + json(mensaje == null ? "" : mensaje) + "}";
+    }
+
+    static final class CuerpoDemasiadoGrande extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        CuerpoDemasiadoGrande() {
+            super("El cuerpo pasa de " + MAX_CUERPO + " bytes");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Servicio servicio = new Servicio(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+        servicio.iniciar();
+        System.out.println("Servicio escuchando en http://127.0.0.1:" + servicio.getPuerto()
+                + " (/misioneros, /derivacion, /estadisticas)");
+    }
+}